@@ -4,9 +4,13 @@ import net.fabricmc.api.ModInitializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import ru.rebey.eventmod.card.CardCatalogSync;
+import ru.rebey.eventmod.card.CardDataLoader;
 import ru.rebey.eventmod.card.CardTimer;
 import ru.rebey.eventmod.command.*;
 import ru.rebey.eventmod.data.PlayerEventHandler;
+import ru.rebey.eventmod.effect.ArmorRestrictionEffect;
+import ru.rebey.eventmod.effect.WeaponRestrictionEffect;
 import ru.rebey.eventmod.network.*;
 import ru.rebey.eventmod.playerlist.PlayerListSync;
 
@@ -33,7 +37,7 @@ public class EventMod implements ModInitializer {
             LOGGER.info("{}Регистрация команд...", LOG_PREFIX);
             registerCommands();
 
-            // Регистрируем C2S пакеты (клиент→сервер) на сервере
+            // Регистрируем C2S пакеты и S2C пакеты, отправляемые сервером
             LOGGER.info("{}Регистрация сетевых пакетов...", LOG_PREFIX);
             registerNetworkPackages();
 
@@ -93,6 +97,25 @@ public class EventMod implements ModInitializer {
             SelectCardPayload.register();
             LOGGER.debug("{}Пакет SelectCardPayload зарегистрирован", LOG_PREFIX);
 
+            RequestPlayerListPayload.register();
+            LOGGER.debug("{}Пакет RequestPlayerListPayload зарегистрирован", LOG_PREFIX);
+
+            RequestCardCatalogPayload.register();
+            LOGGER.debug("{}Пакет RequestCardCatalogPayload зарегистрирован", LOG_PREFIX);
+
+            // Рассылаемые сервером пакеты нужны и на выделенном сервере
+            CardCatalogPayload.register();
+            LOGGER.debug("{}Пакет CardCatalogPayload зарегистрирован", LOG_PREFIX);
+
+            OpenCardSelectionPayload.register();
+            LOGGER.debug("{}Пакет OpenCardSelectionPayload зарегистрирован", LOG_PREFIX);
+
+            SyncAllPlayersPayload.register();
+            LOGGER.debug("{}Пакет SyncAllPlayersPayload зарегистрирован", LOG_PREFIX);
+
+            PlayerListDeltaPayload.register();
+            LOGGER.debug("{}Пакет PlayerListDeltaPayload зарегистрирован", LOG_PREFIX);
+
             LOGGER.info("{}Сетевые пакеты успешно зарегистрированы", LOG_PREFIX);
 
         } catch (Exception e) {
@@ -114,6 +137,21 @@ public class EventMod implements ModInitializer {
             PlayerEventHandler.register();
             LOGGER.debug("{}Обработчик событий игрока зарегистрирован", LOG_PREFIX);
 
+            PlayerListSync.register();
+            LOGGER.debug("{}Синхронизатор списка игроков зарегистрирован", LOG_PREFIX);
+
+            CardDataLoader.register();
+            LOGGER.debug("{}Загрузчик карточек зарегистрирован", LOG_PREFIX);
+
+            CardCatalogSync.register();
+            LOGGER.debug("{}Синхронизатор каталога карточек зарегистрирован", LOG_PREFIX);
+
+            ArmorRestrictionEffect.register();
+            LOGGER.debug("{}Таблица брони зарегистрирована", LOG_PREFIX);
+
+            WeaponRestrictionEffect.register();
+            LOGGER.debug("{}Таблица оружия зарегистрирована", LOG_PREFIX);
+
             LOGGER.info("{}Все обработчики успешно зарегистрированы", LOG_PREFIX);
 
         } catch (Exception e) {
@@ -133,10 +171,6 @@ public class EventMod implements ModInitializer {
                 CardTimer.register(server);
                 LOGGER.debug("{}Таймер карточек зарегистрирован", LOG_PREFIX);
 
-                // Регистрируем синхронизатор списка игроков
-                PlayerListSync.register(server);
-                LOGGER.debug("{}Синхронизатор списка игроков зарегистрирован", LOG_PREFIX);
-
                 LOGGER.info("{}Серверные компоненты EventMod зарегистрированы.", LOG_PREFIX);
 
                 // Логируем информацию о сервере
@@ -1,8 +1,10 @@
 package ru.rebey.eventmod;
 
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
 import net.minecraft.client.MinecraftClient;
+import ru.rebey.eventmod.data.ClientCardCatalog;
 import ru.rebey.eventmod.data.ClientPlayerData;
 import ru.rebey.eventmod.data.ClientPlayerList;
 import ru.rebey.eventmod.gui.ClassSelectionScreen;
@@ -20,6 +22,9 @@ import java.util.Set;
 public class EventModClient implements ClientModInitializer {
     private static final String LOG_PREFIX = "[EventModClient] ";
 
+    // Предложение карточек, ожидающее каталог с нужным хешем
+    private static OpenCardSelectionPayload pendingOffer;
+
     /**
      * Инициализирует мод на клиенте.
      * Вызывается Fabric при запуске клиента.
@@ -58,15 +63,9 @@ public class EventModClient implements ClientModInitializer {
             OpenClassSelectionPayload.register();
             EventMod.LOGGER.debug("{}Пакет OpenClassSelectionPayload зарегистрирован", LOG_PREFIX);
 
-            OpenCardSelectionPayload.register();
-            EventMod.LOGGER.debug("{}Пакет OpenCardSelectionPayload зарегистрирован", LOG_PREFIX);
-
             SyncPlayerEventPlayerDataPayload.register();
             EventMod.LOGGER.debug("{}Пакет SyncPlayerEventPlayerDataPayload зарегистрирован", LOG_PREFIX);
 
-            SyncAllPlayersPayload.register();
-            EventMod.LOGGER.debug("{}Пакет SyncAllPlayersPayload зарегистрирован", LOG_PREFIX);
-
             EventMod.LOGGER.info("{}Все сетевые пакеты успешно зарегистрированы на клиенте", LOG_PREFIX);
 
         } catch (Exception e) {
@@ -114,24 +113,20 @@ public class EventModClient implements ClientModInitializer {
             ClientPlayNetworking.registerGlobalReceiver(OpenCardSelectionPayload.ID, (payload, context) -> {
                 try {
                     EventMod.LOGGER.info("{}Получен пакет открытия экрана выбора карточек. Карточки: {} и {}",
-                            LOG_PREFIX, payload.card1Id(), payload.card2Id());
+                            LOG_PREFIX, payload.card1(), payload.card2());
 
                     context.client().execute(() -> {
                         try {
-                            MinecraftClient client = MinecraftClient.getInstance();
-                            if (client.player != null) {
-                                EventMod.LOGGER.debug("{}Открытие экрана выбора карточек для игрока {}",
-                                        LOG_PREFIX, client.player.getName().getString());
-
-                                client.setScreen(new CardSelectionScreen(
-                                        payload.card1Text(), payload.card2Text(),
-                                        payload.card1Id(), payload.card2Id()
-                                ));
-                                EventMod.LOGGER.debug("{}Экран выбора карточек успешно открыт", LOG_PREFIX);
-                            } else {
-                                EventMod.LOGGER.warn("{}Игрок не найден, невозможно открыть экран выбора карточек",
-                                        LOG_PREFIX);
+                            if (!ClientCardCatalog.hasCatalog(payload.catalogHash())) {
+                                EventMod.LOGGER.debug("{}Каталог {} еще не получен, предложение отложено",
+                                        LOG_PREFIX, Integer.toHexString(payload.catalogHash()));
+                                pendingOffer = payload;
+                                ClientPlayNetworking.send(RequestCardCatalogPayload.getInstance());
+                                return;
                             }
+
+                            pendingOffer = null;
+                            openCardSelection(payload);
                         } catch (Exception e) {
                             EventMod.LOGGER.error("{}Ошибка при открытии экрана выбора карточек: {}",
                                     LOG_PREFIX, e.getMessage(), e);
@@ -144,6 +139,37 @@ public class EventModClient implements ClientModInitializer {
                 }
             });
 
+            // Обработчик каталога карточек
+            ClientPlayNetworking.registerGlobalReceiver(CardCatalogPayload.ID, (payload, context) -> {
+                context.client().execute(() -> {
+                    try {
+                        if (payload.full()) {
+                            ClientCardCatalog.setCatalog(payload.hash(), payload.cards());
+                            EventMod.LOGGER.debug("{}Каталог карточек обновлен: {} карточек",
+                                    LOG_PREFIX, payload.cards().size());
+
+                            OpenCardSelectionPayload offer = pendingOffer;
+                            if (offer != null) {
+                                pendingOffer = null;
+                                if (ClientCardCatalog.hasCatalog(offer.catalogHash())) {
+                                    openCardSelection(offer);
+                                } else {
+                                    // Предложение выдано по каталогу, который сервер уже заменил
+                                    EventMod.LOGGER.warn("{}Отложенное предложение относится к устаревшему каталогу {}",
+                                            LOG_PREFIX, Integer.toHexString(offer.catalogHash()));
+                                }
+                            }
+                        } else if (!ClientCardCatalog.hasCatalog(payload.hash())) {
+                            EventMod.LOGGER.debug("{}Каталог карточек устарел, запрос полного каталога", LOG_PREFIX);
+                            ClientPlayNetworking.send(RequestCardCatalogPayload.getInstance());
+                        }
+                    } catch (Exception e) {
+                        EventMod.LOGGER.error("{}Ошибка при обработке каталога карточек: {}",
+                                LOG_PREFIX, e.getMessage(), e);
+                    }
+                });
+            });
+
             // Обработчик синхронизации данных игрока
             ClientPlayNetworking.registerGlobalReceiver(
                     SyncPlayerEventPlayerDataPayload.ID,
@@ -186,12 +212,18 @@ public class EventModClient implements ClientModInitializer {
             // Обработчик синхронизации списка игроков
             ClientPlayNetworking.registerGlobalReceiver(SyncAllPlayersPayload.ID, (payload, context) -> {
                 try {
-                    EventMod.LOGGER.info("{}Получен пакет списка игроков: {} игроков",
-                            LOG_PREFIX, payload.players().size());
+                    EventMod.LOGGER.info("{}Получен снимок списка игроков: {} игроков (версия {})",
+                            LOG_PREFIX, payload.players().size(), payload.version());
 
                     context.client().execute(() -> {
                         try {
-                            ClientPlayerList.setPlayers(payload.players());
+                            if (payload.version() == ClientPlayerList.NO_VERSION) {
+                                // Снимок не удалось декодировать
+                                ClientPlayNetworking.send(RequestPlayerListPayload.getInstance());
+                                return;
+                            }
+
+                            ClientPlayerList.setPlayers(payload.version(), payload.players());
                             EventMod.LOGGER.debug("{}Список игроков обновлен на клиенте. Игроков: {}",
                                     LOG_PREFIX, payload.players().size());
 
@@ -217,6 +249,34 @@ public class EventModClient implements ClientModInitializer {
                 }
             });
 
+            // Обработчик изменений списка игроков
+            ClientPlayNetworking.registerGlobalReceiver(PlayerListDeltaPayload.ID, (payload, context) -> {
+                context.client().execute(() -> {
+                    try {
+                        if (!ClientPlayerList.applyDelta(payload.version(), payload.changes())) {
+                            EventMod.LOGGER.warn("{}Версия списка игроков рассинхронизирована, запрос полного списка",
+                                    LOG_PREFIX);
+                            ClientPlayNetworking.send(RequestPlayerListPayload.getInstance());
+                            return;
+                        }
+
+                        EventMod.LOGGER.debug("{}Применены изменения списка игроков: {} (версия {})",
+                                LOG_PREFIX, payload.changes().size(), payload.version());
+
+                    } catch (Exception e) {
+                        EventMod.LOGGER.error("{}Ошибка при применении изменений списка игроков: {}",
+                                LOG_PREFIX, e.getMessage(), e);
+                    }
+                });
+            });
+
+            // Список игроков и отложенное предложение относятся к конкретному серверу
+            ClientPlayConnectionEvents.DISCONNECT.register((handler, client) ->
+                    client.execute(() -> {
+                        ClientPlayerList.clear();
+                        pendingOffer = null;
+                    }));
+
             EventMod.LOGGER.info("{}Все обработчики пакетов успешно зарегистрированы", LOG_PREFIX);
 
         } catch (Exception e) {
@@ -225,6 +285,29 @@ public class EventModClient implements ClientModInitializer {
         }
     }
 
+    /**
+     * Открывает экран выбора карточек по номерам из загруженного каталога.
+     * @param payload предложение карточек
+     */
+    private static void openCardSelection(OpenCardSelectionPayload payload) {
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.player != null) {
+            EventMod.LOGGER.debug("{}Открытие экрана выбора карточек для игрока {}",
+                    LOG_PREFIX, client.player.getName().getString());
+
+            client.setScreen(new CardSelectionScreen(
+                    ClientCardCatalog.getText(payload.card1()),
+                    ClientCardCatalog.getText(payload.card2()),
+                    ClientCardCatalog.getId(payload.card1()),
+                    ClientCardCatalog.getId(payload.card2())
+            ));
+            EventMod.LOGGER.debug("{}Экран выбора карточек успешно открыт", LOG_PREFIX);
+        } else {
+            EventMod.LOGGER.warn("{}Игрок не найден, невозможно открыть экран выбора карточек",
+                    LOG_PREFIX);
+        }
+    }
+
     /**
      * Регистрирует HUD рендереры.
      */
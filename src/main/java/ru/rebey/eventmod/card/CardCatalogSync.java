@@ -0,0 +1,141 @@
+package ru.rebey.eventmod.card;
+
+import io.netty.buffer.Unpooled;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import ru.rebey.eventmod.EventMod;
+import ru.rebey.eventmod.data.PlayerDataManager;
+import ru.rebey.eventmod.network.CardCatalogPayload;
+import ru.rebey.eventmod.network.RequestCardCatalogPayload;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Синхронизация каталога карточек с клиентами.
+ * При подключении игрок получает хеш каталога, полный каталог отправляется
+ * только по запросу клиента, у которого нет каталога с таким хешем.
+ * Собранный каталог кешируется до остановки сервера или перезагрузки датапаков;
+ * после /reload всем игрокам рассылается новый хеш.
+ */
+public class CardCatalogSync {
+    private static final String LOG_PREFIX = "[CardCatalogSync] ";
+
+    private static CardCatalogPayload catalog;
+    private static CardCatalogPayload announce;
+
+    /**
+     * Регистрирует обработчики синхронизации каталога.
+     */
+    public static void register() {
+        EventMod.LOGGER.info("{}Регистрация синхронизации каталога карточек", LOG_PREFIX);
+
+        ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> {
+            try {
+                ensureBuilt(server);
+                sender.sendPacket(announce);
+            } catch (Exception e) {
+                EventMod.LOGGER.error("{}Ошибка при отправке хеша каталога: {}", LOG_PREFIX, e.getMessage(), e);
+            }
+        });
+
+        ServerPlayNetworking.registerGlobalReceiver(RequestCardCatalogPayload.ID, (payload, context) -> {
+            ensureBuilt(context.server());
+            context.responseSender().sendPacket(catalog);
+            EventMod.LOGGER.debug("{}Игроку {} отправлен каталог карточек ({} карточек)",
+                    LOG_PREFIX, context.player().getName().getString(), catalog.cards().size());
+        });
+
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, resourceManager, success) -> {
+            if (success) {
+                onCardsReloaded(server);
+            }
+        });
+
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> invalidate());
+    }
+
+    /**
+     * Пересобирает каталог после перезагрузки карточек и рассылает новый хеш.
+     * Эффекты онлайн-игроков, зашитые в модификаторы атрибутов, применяются заново
+     * с новыми параметрами.
+     * Клиенты с устаревшим каталогом запросят его заново.
+     * @param server экземпляр сервера Minecraft
+     */
+    private static void onCardsReloaded(MinecraftServer server) {
+        try {
+            invalidate();
+            CardTimer.invalidatePrepared();
+            ensureBuilt(server);
+            for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
+                PlayerDataManager.refreshParameterEffects(player);
+                ServerPlayNetworking.send(player, announce);
+            }
+            EventMod.LOGGER.info("{}Каталог карточек перезагружен, хеш разослан {} игрокам",
+                    LOG_PREFIX, server.getPlayerManager().getPlayerList().size());
+        } catch (Exception e) {
+            EventMod.LOGGER.error("{}Ошибка при рассылке каталога после перезагрузки: {}",
+                    LOG_PREFIX, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Получает хеш текущего каталога, собирая каталог при необходимости.
+     * Передается в предложениях карточек, чтобы клиент сверил его со своим каталогом.
+     * @param server экземпляр сервера Minecraft
+     * @return хеш каталога
+     */
+    public static int getHash(MinecraftServer server) {
+        ensureBuilt(server);
+        return catalog.hash();
+    }
+
+    /**
+     * Собирает пакет каталога, если он еще не собран.
+     * Хеш считается по закодированным карточкам, поэтому совпадает у всех
+     * серверов с одинаковым содержимым каталога.
+     * @param server экземпляр сервера Minecraft
+     */
+    private static void ensureBuilt(MinecraftServer server) {
+        if (catalog != null) {
+            return;
+        }
+
+        List<CardCatalogPayload.Entry> entries = new ArrayList<>();
+        for (CardRegistry.CardOption card : CardRegistry.getCatalog()) {
+            entries.add(new CardCatalogPayload.Entry(
+                    card.id(), card.name(), card.buffDescription(), card.debuffDescription()));
+        }
+
+        RegistryByteBuf buf = new RegistryByteBuf(Unpooled.buffer(), server.getRegistryManager());
+        CRC32 crc = new CRC32();
+        try {
+            for (CardCatalogPayload.Entry entry : entries) {
+                CardCatalogPayload.Entry.CODEC.encode(buf, entry);
+            }
+            crc.update(buf.nioBuffer());
+        } finally {
+            buf.release();
+        }
+
+        int hash = (int) crc.getValue();
+        catalog = new CardCatalogPayload(hash, true, List.copyOf(entries));
+        announce = CardCatalogPayload.announce(hash);
+
+        EventMod.LOGGER.info("{}Каталог карточек собран: {} карточек, хеш {}",
+                LOG_PREFIX, entries.size(), Integer.toHexString(hash));
+    }
+
+    /**
+     * Сбрасывает собранный каталог.
+     */
+    public static void invalidate() {
+        catalog = null;
+        announce = null;
+    }
+}
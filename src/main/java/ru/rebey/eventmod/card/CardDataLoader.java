@@ -0,0 +1,190 @@
+package ru.rebey.eventmod.card;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
+import net.fabricmc.fabric.api.resource.SimpleSynchronousResourceReloadListener;
+import net.minecraft.resource.Resource;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.resource.ResourceType;
+import net.minecraft.text.Text;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.JsonHelper;
+import ru.rebey.eventmod.EventMod;
+import ru.rebey.eventmod.data.PlayerClass;
+import ru.rebey.eventmod.effect.EffectType;
+
+import java.io.Reader;
+import java.util.*;
+
+/**
+ * Загрузчик карточек из датапаков.
+ * Читает файлы data/&lt;namespace&gt;/eventmod_cards/*.json, собирает из них
+ * неизменяемые таблицы CardRegistry и подменяет их при каждой загрузке
+ * и команде /reload. Файл с ошибкой пропускается, остальные карточки загружаются.
+ * <p>
+ * Формат файла (ID карточки - имя файла):
+ * <pre>
+ * {
+ *   "class": "tank",
+ *   "name": "...", "buff": "...", "debuff": "...",
+ *   "weight": 100,
+ *   "effects": ["extra_health_8", "tank_slowness"],
+ *   "parameters": { "tank_slowness": 0.7 }
+ * }
+ * </pre>
+ * Параметры эффектов общие для всех карточек; если параметр задан
+ * несколькими карточками, используется последний загруженный.
+ */
+public class CardDataLoader implements SimpleSynchronousResourceReloadListener {
+    private static final String LOG_PREFIX = "[CardDataLoader] ";
+    private static final Identifier ID = Identifier.of(EventMod.MOD_ID, "cards");
+    private static final String DIRECTORY = "eventmod_cards";
+    private static final String EXTENSION = ".json";
+
+    /**
+     * Разобранное определение карточки до присвоения номера в каталоге.
+     */
+    private record CardSpec(PlayerClass playerClass, String id, Text name, Text buffDescription,
+                            Text debuffDescription, int weight, long effectMask) {
+    }
+
+    /**
+     * Регистрирует загрузчик карточек для серверных данных.
+     */
+    public static void register() {
+        ResourceManagerHelper.get(ResourceType.SERVER_DATA).registerReloadListener(new CardDataLoader());
+        EventMod.LOGGER.info("{}Загрузчик карточек зарегистрирован", LOG_PREFIX);
+    }
+
+    @Override
+    public Identifier getFabricId() {
+        return ID;
+    }
+
+    @Override
+    public void reload(ResourceManager manager) {
+        Map<Identifier, Resource> resources = manager.findResources(DIRECTORY, id -> id.getPath().endsWith(EXTENSION));
+
+        // Сортировка по ID делает номера карточек независимыми от порядка датапаков
+        List<CardSpec> specs = new ArrayList<>();
+        double[] effectValues = CardRegistry.defaultEffectValues();
+        for (Map.Entry<Identifier, Resource> entry : new TreeMap<>(resources).entrySet()) {
+            Identifier fileId = entry.getKey();
+            try (Reader reader = entry.getValue().getReader()) {
+                JsonObject json = JsonParser.parseReader(reader).getAsJsonObject();
+                specs.add(parseCard(cardId(fileId), json, effectValues));
+            } catch (Exception e) {
+                EventMod.LOGGER.error("{}Ошибка загрузки карточки {}: {}", LOG_PREFIX, fileId, e.getMessage(), e);
+            }
+        }
+
+        CardRegistry.apply(compile(specs, effectValues));
+    }
+
+    /**
+     * Получает ID карточки по пути файла.
+     * Для пространства имен мода ID совпадает с именем файла.
+     * @param fileId путь файла
+     * @return ID карточки
+     */
+    private static String cardId(Identifier fileId) {
+        String path = fileId.getPath();
+        String name = path.substring(DIRECTORY.length() + 1, path.length() - EXTENSION.length());
+        return EventMod.MOD_ID.equals(fileId.getNamespace()) ? name : fileId.getNamespace() + ":" + name;
+    }
+
+    /**
+     * Разбирает определение карточки.
+     * @param id ID карточки
+     * @param json содержимое файла
+     * @param effectValues параметры эффектов, дополняемые параметрами карточки
+     * @return определение карточки
+     */
+    private static CardSpec parseCard(String id, JsonObject json, double[] effectValues) {
+        String classId = JsonHelper.getString(json, "class");
+        PlayerClass playerClass = PlayerClass.fromId(classId);
+        if (playerClass == null) {
+            throw new IllegalArgumentException("Неизвестный класс: " + classId);
+        }
+
+        long effectMask = 0L;
+        JsonArray effects = JsonHelper.getArray(json, "effects");
+        for (JsonElement element : effects) {
+            effectMask |= parseEffect(JsonHelper.asString(element, "effect")).bit();
+        }
+
+        int weight = JsonHelper.getInt(json, "weight", CardRegistry.DEFAULT_WEIGHT);
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Вес карточки должен быть положительным: " + weight);
+        }
+
+        CardSpec spec = new CardSpec(
+                playerClass,
+                id,
+                Text.literal(JsonHelper.getString(json, "name")),
+                Text.literal(JsonHelper.getString(json, "buff")),
+                Text.literal(JsonHelper.getString(json, "debuff")),
+                weight,
+                effectMask
+        );
+
+        // Параметры применяются только после разбора всего файла, чтобы файл с ошибкой их не менял
+        double[] values = effectValues.clone();
+        JsonObject parameters = JsonHelper.getObject(json, "parameters", new JsonObject());
+        for (Map.Entry<String, JsonElement> parameter : parameters.entrySet()) {
+            EffectType type = parseEffect(parameter.getKey());
+            values[type.ordinal()] = JsonHelper.asDouble(parameter.getValue(), parameter.getKey());
+        }
+        System.arraycopy(values, 0, effectValues, 0, values.length);
+
+        return spec;
+    }
+
+    /**
+     * Преобразует ID эффекта в тип эффекта.
+     * @param effectId ID эффекта
+     * @return тип эффекта
+     */
+    private static EffectType parseEffect(String effectId) {
+        EffectType type = EffectType.fromId(effectId);
+        if (type == null) {
+            throw new IllegalArgumentException("Неизвестный эффект: " + effectId);
+        }
+        return type;
+    }
+
+    /**
+     * Собирает таблицы реестра: номера карточек идут по порядку классов, внутри класса - по ID.
+     * @param specs определения карточек, отсортированные по ID
+     * @param effectValues параметры эффектов
+     * @return неизменяемые таблицы
+     */
+    private static CardRegistry.Tables compile(List<CardSpec> specs, double[] effectValues) {
+        PlayerClass[] classes = PlayerClass.values();
+        CardRegistry.CardOption[][] byClass = new CardRegistry.CardOption[classes.length][];
+        List<CardRegistry.CardOption> catalog = new ArrayList<>(specs.size());
+        Map<String, CardRegistry.CardOption> byId = new HashMap<>();
+
+        for (PlayerClass playerClass : classes) {
+            List<CardRegistry.CardOption> classCards = new ArrayList<>();
+            for (CardSpec spec : specs) {
+                if (spec.playerClass() != playerClass) {
+                    continue;
+                }
+                CardRegistry.CardOption card = new CardRegistry.CardOption(
+                        catalog.size(), spec.id(), spec.name(), spec.buffDescription(),
+                        spec.debuffDescription(), spec.weight(), spec.effectMask());
+                catalog.add(card);
+                classCards.add(card);
+                byId.put(card.id(), card);
+            }
+            byClass[playerClass.ordinal()] = classCards.toArray(new CardRegistry.CardOption[0]);
+            EventMod.LOGGER.debug("{}Класс {}: {} карточек", LOG_PREFIX, playerClass, classCards.size());
+        }
+
+        return new CardRegistry.Tables(byClass, List.copyOf(catalog), Map.copyOf(byId), effectValues);
+    }
+}
@@ -3,92 +3,159 @@ package ru.rebey.eventmod.card;
 import net.minecraft.text.Text;
 import ru.rebey.eventmod.data.PlayerClass;
 import ru.rebey.eventmod.EventMod;
+import ru.rebey.eventmod.effect.EffectType;
 
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Реестр карточек для различных классов игроков.
- * Хранит определения карточек с их ID, названиями и описаниями эффектов.
+ * Хранит определения карточек с их ID, названиями, описаниями и эффектами.
+ * Карточки загружаются из датапаков (см. CardDataLoader) и при каждой перезагрузке
+ * собираются в неизменяемый набор таблиц, который подменяется целиком, поэтому
+ * чтение не требует блокировок и не медленнее статических массивов.
+ * Все карточки также лежат в едином каталоге: номер карточки в каталоге
+ * используется в сетевых пакетах вместо текста карточки.
  */
 public class CardRegistry {
+    private static final String LOG_PREFIX = "[CardRegistry] ";
+
+    // Вес карточки по умолчанию
+    public static final int DEFAULT_WEIGHT = 100;
 
     /**
      * Класс, представляющий опцию карточки.
-     * Содержит ID, название, описание баффа и дебаффа.
+     * Содержит ID, название, описание баффа и дебаффа, вес (редкость),
+     * маску эффектов и номер карточки в каталоге.
      */
     public static class CardOption {
+        private final int index;
         private final String id;
         private final Text name;
         private final Text buffDescription;
         private final Text debuffDescription;
+        private final int weight;
+        private final long effectMask;
 
-        public CardOption(String id, Text name, Text buffDescription, Text debuffDescription) {
+        /**
+         * Создает карточку.
+         * Чем меньше вес относительно других карточек класса, тем реже карточка выпадает.
+         */
+        CardOption(int index, String id, Text name, Text buffDescription, Text debuffDescription,
+                   int weight, long effectMask) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Вес карточки " + id + " должен быть положительным: " + weight);
+            }
+            this.index = index;
             this.id = id;
             this.name = name;
             this.buffDescription = buffDescription;
             this.debuffDescription = debuffDescription;
+            this.weight = weight;
+            this.effectMask = effectMask;
         }
 
         public String id() { return id; }
         public Text name() { return name; }
         public Text buffDescription() { return buffDescription; }
         public Text debuffDescription() { return debuffDescription; }
+        public int weight() { return weight; }
+
+        /**
+         * Получает маску эффектов карточки.
+         * @return маска эффектов (см. EffectType)
+         */
+        public long effectMask() { return effectMask; }
+
+        /**
+         * Получает номер карточки в каталоге.
+         * @return номер карточки
+         */
+        public int index() { return index; }
+    }
+
+    /**
+     * Неизменяемый набор таблиц карточек.
+     * @param byClass карточки по порядковому номеру класса
+     * @param catalog все карточки в порядке номеров
+     * @param byId карточки по ID
+     * @param effectValues параметры эффектов по порядковому номеру эффекта
+     */
+    record Tables(CardOption[][] byClass, List<CardOption> catalog, Map<String, CardOption> byId,
+                  double[] effectValues) {
+    }
+
+    private static final CardOption[] NO_CARDS = new CardOption[0];
+
+    private static volatile Tables tables = emptyTables();
+
+    /**
+     * Создает пустой набор таблиц с параметрами эффектов по умолчанию.
+     * @return пустые таблицы
+     */
+    static Tables emptyTables() {
+        CardOption[][] byClass = new CardOption[PlayerClass.values().length][];
+        Arrays.fill(byClass, NO_CARDS);
+        return new Tables(byClass, List.of(), Map.of(), defaultEffectValues());
+    }
+
+    /**
+     * Создает массив параметров эффектов со значениями по умолчанию.
+     * @return параметры эффектов по порядковому номеру эффекта
+     */
+    static double[] defaultEffectValues() {
+        double[] values = new double[EffectType.count()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = EffectType.byOrdinal(i).getDefaultValue();
+        }
+        return values;
+    }
+
+    /**
+     * Подменяет таблицы карточек и перестраивает зависимые структуры.
+     * @param newTables новые таблицы
+     */
+    static void apply(Tables newTables) {
+        tables = newTables;
+        CardSampler.rebuild();
+        EventMod.LOGGER.info("{}Загружено {} карточек", LOG_PREFIX, newTables.catalog().size());
     }
 
-    // Карта для хранения карточек по классам игроков
-    private static final Map<PlayerClass, CardOption[]> CARDS = new HashMap<>();
-
-    static {
-        // Инициализация карточек для Танка
-        CARDS.put(PlayerClass.TANK, new CardOption[]{
-                new CardOption(
-                        "tank_card_1",
-                        Text.literal("🛡️ Щит души"),
-                        Text.literal("+4♥"),
-                        Text.literal("−30% скорости")
-                ),
-                new CardOption(
-                        "tank_card_2",
-                        Text.literal("🦾 Железные суставы"),
-                        Text.literal("−50% урона от падения"),
-                        Text.literal("Только топоры/кирки")
-                ),
-                new CardOption(
-                        "tank_card_3",
-                        Text.literal("🛡️ Удар щитом"),
-                        Text.literal("Атака щитом отбрасывает врагов"),
-                        Text.literal("Атака щитом отбрасывает врагов")
-                ),
-        });
-
-        // Инициализация карточек для Ассасина
-        CARDS.put(PlayerClass.ASSASSIN, new CardOption[]{
-                new CardOption(
-                        "assassin_card_1",
-                        Text.literal("🎯 Охотник на целых"),
-                        Text.literal("+50% урона по игрокам с полным здоровьем"),
-                        Text.literal("−20% максимального здоровья")
-                ),
-                new CardOption(
-                        "assassin_card_2",
-                        Text.literal("👻 Призрак ночи"),
-                        Text.literal("4 сек без движения → невидимость"),
-                        Text.literal("Только кожаная броня")
-                )
-        });
-
-        EventMod.LOGGER.info("[CardRegistry] Инициализированы карточки для {} классов", CARDS.size());
+    /**
+     * Получает каталог всех карточек.
+     * @return неизменяемый список карточек в порядке номеров
+     */
+    public static List<CardOption> getCatalog() {
+        return tables.catalog();
     }
 
     /**
      * Получает массив карточек для указанного класса игрока.
+     * Массив принадлежит реестру и не должен изменяться.
      * @param playerClass класс игрока
      * @return массив карточек или пустой массив, если карточек нет
      */
     public static CardOption[] getCardsFor(PlayerClass playerClass) {
-        CardOption[] cards = CARDS.getOrDefault(playerClass, new CardOption[0]);
-        EventMod.LOGGER.debug("[CardRegistry] Получено {} карточек для класса {}", cards.length, playerClass);
-        return cards;
+        return tables.byClass()[playerClass.ordinal()];
+    }
+
+    /**
+     * Получает карточку по ID.
+     * @param cardId ID карточки
+     * @return карточка или null, если карточка не найдена
+     */
+    public static CardOption getCard(String cardId) {
+        return tables.byId().get(cardId);
+    }
+
+    /**
+     * Получает текущее значение параметра эффекта.
+     * Вызывается из горячих путей (миксинов), поэтому не логирует.
+     * @param type тип эффекта
+     * @return значение параметра
+     */
+    public static double getEffectValue(EffectType type) {
+        return tables.effectValues()[type.ordinal()];
     }
-}
\ No newline at end of file
+}
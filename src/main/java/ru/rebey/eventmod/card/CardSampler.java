@@ -0,0 +1,235 @@
+package ru.rebey.eventmod.card;
+
+import ru.rebey.eventmod.EventMod;
+import ru.rebey.eventmod.data.PlayerClass;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Взвешенный выбор карточек для предложений.
+ * Для каждого класса заранее строится таблица псевдонимов (метод Уолкера/Воуза),
+ * поэтому одна карточка выбирается за O(1) независимо от размера пула.
+ * Пара карточек возвращается упакованной в int, история недавно предложенных
+ * карточек игрока - кольцом из 16-битных номеров в одном long, так что выбор
+ * не создает объектов.
+ * Размер окна без повторов задается свойством eventmod.cards.noRepeatWindow
+ * (число карточек, от 0 до 4).
+ */
+public class CardSampler {
+    private static final String LOG_PREFIX = "[CardSampler] ";
+
+    // Значение "пара не выбрана"
+    public static final int NO_PAIR = -1;
+
+    // Ширина ячейки истории и максимальное число ячеек в long
+    private static final int SLOT_BITS = 16;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int MAX_WINDOW = Long.SIZE / SLOT_BITS;
+
+    // Сколько последних карточек игрока не предлагается повторно
+    private static final int WINDOW = Math.min(MAX_WINDOW, Math.max(0, Integer.getInteger("eventmod.cards.noRepeatWindow", 2)));
+    private static final long WINDOW_MASK = WINDOW == MAX_WINDOW ? -1L : (1L << (WINDOW * SLOT_BITS)) - 1;
+
+    // Попыток выборки до отказа от ограничения
+    private static final int MAX_ATTEMPTS = 8;
+
+    private static final Random RANDOM = new Random();
+
+    /**
+     * Таблица псевдонимов для карточек одного класса.
+     * @param indices номера карточек в каталоге
+     * @param prob вероятность оставить выбранную ячейку
+     * @param alias ячейка-псевдоним
+     */
+    private record AliasTable(int[] indices, double[] prob, int[] alias) {}
+
+    private static volatile Map<PlayerClass, AliasTable> tables = build();
+
+    /**
+     * Перестраивает таблицы по текущему содержимому CardRegistry.
+     */
+    public static void rebuild() {
+        tables = build();
+    }
+
+    /**
+     * Строит таблицы псевдонимов для всех классов.
+     * @return таблицы по классам (только для классов с двумя и более карточками)
+     */
+    private static Map<PlayerClass, AliasTable> build() {
+        Map<PlayerClass, AliasTable> result = new EnumMap<>(PlayerClass.class);
+        for (PlayerClass playerClass : PlayerClass.values()) {
+            CardRegistry.CardOption[] cards = CardRegistry.getCardsFor(playerClass);
+            if (cards.length < 2) {
+                continue;
+            }
+            result.put(playerClass, buildTable(cards));
+        }
+        EventMod.LOGGER.debug("{}Таблицы выбора построены для {} классов, окно без повторов: {}",
+                LOG_PREFIX, result.size(), WINDOW);
+        return result;
+    }
+
+    /**
+     * Строит таблицу псевдонимов по весам карточек (алгоритм Воуза).
+     * @param cards карточки класса
+     * @return таблица псевдонимов
+     */
+    private static AliasTable buildTable(CardRegistry.CardOption[] cards) {
+        int n = cards.length;
+        int[] indices = new int[n];
+        double[] prob = new double[n];
+        int[] alias = new int[n];
+
+        long totalWeight = 0;
+        for (int i = 0; i < n; i++) {
+            if (cards[i].index() >= SLOT_MASK) {
+                throw new IllegalStateException("Номер карточки " + cards[i].id() + " не помещается в историю: " + cards[i].index());
+            }
+            indices[i] = cards[i].index();
+            totalWeight += cards[i].weight();
+        }
+
+        // Масштабированные веса: среднее значение равно 1
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = (double) cards[i].weight() * n / totalWeight;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            prob[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+
+        // Остатки из-за погрешности округления
+        while (largeCount > 0) {
+            prob[large[--largeCount]] = 1.0;
+        }
+        while (smallCount > 0) {
+            prob[small[--smallCount]] = 1.0;
+        }
+
+        return new AliasTable(indices, prob, alias);
+    }
+
+    /**
+     * Выбирает две разные карточки для класса с учетом весов и истории игрока.
+     * Если история не оставляет подходящих карточек, она игнорируется.
+     * @param playerClass класс игрока
+     * @param history история игрока (см. remember)
+     * @return пара номеров карточек в каталоге или NO_PAIR, если у класса меньше двух карточек
+     */
+    public static int drawPair(PlayerClass playerClass, long history) {
+        AliasTable table = tables.get(playerClass);
+        if (table == null) {
+            return NO_PAIR;
+        }
+
+        int first = sampleExcluding(table, history, -1);
+        int second = sampleExcluding(table, history, first);
+        return (table.indices()[first] << SLOT_BITS) | table.indices()[second];
+    }
+
+    /**
+     * Получает номер первой карточки пары.
+     * @param pair пара из drawPair
+     * @return номер карточки в каталоге
+     */
+    public static int first(int pair) {
+        return pair >>> SLOT_BITS;
+    }
+
+    /**
+     * Получает номер второй карточки пары.
+     * @param pair пара из drawPair
+     * @return номер карточки в каталоге
+     */
+    public static int second(int pair) {
+        return pair & SLOT_MASK;
+    }
+
+    /**
+     * Добавляет предложенные карточки в историю игрока, вытесняя самые старые.
+     * @param history текущая история
+     * @param card1 номер первой карточки в каталоге
+     * @param card2 номер второй карточки в каталоге
+     * @return новая история
+     */
+    public static long remember(long history, int card1, int card2) {
+        history = (history << SLOT_BITS) | (card1 + 1);
+        history = (history << SLOT_BITS) | (card2 + 1);
+        return history & WINDOW_MASK;
+    }
+
+    /**
+     * Выбирает ячейку таблицы, отличную от exclude и не входящую в историю.
+     * @param table таблица псевдонимов
+     * @param history история игрока
+     * @param exclude ячейка, которую нельзя выбрать, или -1
+     * @return номер ячейки таблицы
+     */
+    private static int sampleExcluding(AliasTable table, long history, int exclude) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            int slot = sample(table);
+            if (slot != exclude && !inHistory(history, table.indices()[slot])) {
+                return slot;
+            }
+        }
+
+        // История закрывает почти весь пул: выбираем без нее
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            int slot = sample(table);
+            if (slot != exclude) {
+                return slot;
+            }
+        }
+
+        // Вес исключенной карточки подавляет остальные: берем соседнюю
+        return (exclude + 1) % table.indices().length;
+    }
+
+    /**
+     * Выбирает ячейку таблицы пропорционально весам.
+     * @param table таблица псевдонимов
+     * @return номер ячейки таблицы
+     */
+    private static int sample(AliasTable table) {
+        int slot = RANDOM.nextInt(table.prob().length);
+        return RANDOM.nextDouble() < table.prob()[slot] ? slot : table.alias()[slot];
+    }
+
+    /**
+     * Проверяет, есть ли карточка в истории.
+     * @param history история игрока
+     * @param index номер карточки в каталоге
+     * @return true если карточка предлагалась недавно
+     */
+    private static boolean inHistory(long history, int index) {
+        long value = index + 1L;
+        for (int slot = 0; slot < WINDOW; slot++) {
+            if (((history >>> (slot * SLOT_BITS)) & SLOT_MASK) == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
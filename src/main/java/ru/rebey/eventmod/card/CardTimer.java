@@ -4,10 +4,11 @@ import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
-import net.minecraft.text.Text;
 import ru.rebey.eventmod.EventMod;
 import ru.rebey.eventmod.data.PlayerClass;
 import ru.rebey.eventmod.data.PlayerDataHandler;
+import ru.rebey.eventmod.data.PlayerLifecycleRegistry;
+import ru.rebey.eventmod.data.PlayerState;
 import ru.rebey.eventmod.network.OpenCardSelectionPayload;
 
 import java.util.*;
@@ -15,6 +16,11 @@ import java.util.*;
 /**
  * Таймер для автоматической отправки выбора карточек игрокам.
  * Отправляет выбор карточек каждые 5 минут.
+ * Раунд не отправляется за один тик: игроки ставятся в очередь, которая
+ * разбирается в течение окна рассылки с ограничением времени на тик.
+ * Предложения следующего раунда заранее готовятся в тиках без рассылки.
+ * Параметры задаются системными свойствами:
+ * eventmod.cards.dispatchWindow (тики) и eventmod.cards.tickBudgetMicros (мкс).
  */
 public class CardTimer {
     private static final String LOG_PREFIX = "[CardTimer] ";
@@ -24,8 +30,30 @@ public class CardTimer {
         return 5 * 20 * 60; // 5 минут
     }
 
+    // Окно рассылки: за это число тиков предложение получают все игроки
+    private static final int DISPATCH_WINDOW = Math.max(1, Integer.getInteger("eventmod.cards.dispatchWindow", 100));
+    // Бюджет времени на рассылку и подготовку в одном тике
+    private static final long TICK_BUDGET_NANOS = Math.max(1, Integer.getInteger("eventmod.cards.tickBudgetMicros", 1000)) * 1000L;
+
+    /**
+     * Заранее подготовленное предложение.
+     * @param playerClass класс, для которого вытянуты карточки
+     * @param payload пакет предложения
+     */
+    private record PreparedOffer(PlayerClass playerClass, OpenCardSelectionPayload payload) {}
+
     private static long lastTriggerTick = -1;
-    private static final Random RANDOM = new Random();
+
+    private static final Map<UUID, PreparedOffer> PREPARED = new HashMap<>();
+    private static final ArrayDeque<UUID> QUEUE = new ArrayDeque<>();
+
+    static {
+        PlayerLifecycleRegistry.registerKeys(PlayerLifecycleRegistry.Scope.SESSION, "card_offers", PREPARED.keySet());
+    }
+    private static int windowTicksLeft;
+    private static int successfulSends;
+    private static int failedSends;
+    private static int prepareCursor;
 
     /**
      * Регистрирует таймер на сервере.
@@ -33,85 +61,177 @@ public class CardTimer {
      */
     public static void register(MinecraftServer server) {
         lastTriggerTick = server.getTicks();
-        EventMod.LOGGER.info("{}Таймер карточек зарегистрирован. Интервал: {} тиков ({} минут)",
-                LOG_PREFIX, getTicksBetweenCards(), getTicksBetweenCards() / (20 * 60));
+        PREPARED.clear();
+        QUEUE.clear();
+        windowTicksLeft = 0;
+        EventMod.LOGGER.info("{}Таймер карточек зарегистрирован. Интервал: {} тиков ({} минут), окно рассылки: {} тиков, бюджет: {} мкс",
+                LOG_PREFIX, getTicksBetweenCards(), getTicksBetweenCards() / (20 * 60),
+                DISPATCH_WINDOW, TICK_BUDGET_NANOS / 1000);
 
         ServerTickEvents.END_SERVER_TICK.register(s -> {
-            if (s.getTicks() - lastTriggerTick >= getTicksBetweenCards()) {
+            if (!QUEUE.isEmpty()) {
+                dispatch(s);
+            } else if (s.getTicks() - lastTriggerTick >= getTicksBetweenCards()) {
                 triggerCardSelection(s);
                 lastTriggerTick = s.getTicks();
+            } else {
+                prepare(s);
             }
         });
     }
 
     /**
-     * Запускает процесс выбора карточек для всех игроков онлайн.
+     * Сбрасывает заранее подготовленные предложения.
+     * Вызывается после перезагрузки карточек: номера карточек в каталоге могли измениться.
+     */
+    public static void invalidatePrepared() {
+        PREPARED.clear();
+    }
+
+    /**
+     * Вытягивает две разные карточки для игрока с учетом весов и его истории предложений.
+     * @param player игрок
+     * @param pc класс игрока
+     * @return пакет предложения или null, если у класса меньше двух карточек
+     */
+    public static OpenCardSelectionPayload drawOffer(ServerPlayerEntity player, PlayerClass pc) {
+        int pair = CardSampler.drawPair(pc, PlayerState.of(player).getCardHistory());
+        if (pair == CardSampler.NO_PAIR) {
+            return null;
+        }
+        return new OpenCardSelectionPayload(CardCatalogSync.getHash(player.getServer()),
+                CardSampler.first(pair), CardSampler.second(pair));
+    }
+
+    /**
+     * Запоминает отправленное предложение в истории игрока.
+     * @param player игрок
+     * @param payload отправленное предложение
+     */
+    public static void recordOffer(ServerPlayerEntity player, OpenCardSelectionPayload payload) {
+        PlayerState state = PlayerState.of(player);
+        state.setCardHistory(CardSampler.remember(state.getCardHistory(), payload.card1(), payload.card2()));
+    }
+
+    /**
+     * Запускает раунд выбора карточек: ставит всех игроков онлайн в очередь рассылки.
      * @param server экземпляр сервера Minecraft
      */
     private static void triggerCardSelection(MinecraftServer server) {
-        EventMod.LOGGER.info("{}Таймер сработал. Генерация карточек для игроков...", LOG_PREFIX);
-
-        int totalPlayers = server.getPlayerManager().getPlayerList().size();
-        int successfulSends = 0;
-        int failedSends = 0;
-
-        for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
-            try {
-                PlayerClass pc = PlayerDataHandler.getPlayerClass(player);
-                if (pc == null) {
-                    EventMod.LOGGER.warn("{}Игрок {} не имеет класса. Пропуск.", LOG_PREFIX, player.getName().getString());
-                    failedSends++;
-                    continue;
-                }
-
-                CardRegistry.CardOption[] allCards = CardRegistry.getCardsFor(pc);
-                if (allCards.length < 2) {
-                    EventMod.LOGGER.warn("{}Недостаточно карточек для класса {} (найдено: {})",
-                            LOG_PREFIX, pc, allCards.length);
-                    failedSends++;
-                    continue;
-                }
-
-                // Выбираем 2 случайные карточки
-                List<CardRegistry.CardOption> cardList = new ArrayList<>(Arrays.asList(allCards));
-                Collections.shuffle(cardList, RANDOM);
-                CardRegistry.CardOption card1 = cardList.get(0);
-                CardRegistry.CardOption card2 = cardList.get(1);
-
-                // Формируем полное описание карточек
-                Text fullText1 = createFullCardText(card1);
-                Text fullText2 = createFullCardText(card2);
-
-                // Отправляем игроку пакет с выбором карточек
-                ServerPlayNetworking.send(player,
-                        OpenCardSelectionPayload.of(fullText1, fullText2, card1.id(), card2.id()));
-
-                EventMod.LOGGER.debug("{}Отправлен выбор карточек игроку: {}. Карточки: {}, {}",
-                        LOG_PREFIX, player.getName().getString(), card1.id(), card2.id());
-                successfulSends++;
-
-            } catch (Exception e) {
-                EventMod.LOGGER.error("{}Ошибка при отправке карточек игроку {}: {}",
-                        LOG_PREFIX, player.getName().getString(), e.getMessage(), e);
-                failedSends++;
+        List<ServerPlayerEntity> players = server.getPlayerManager().getPlayerList();
+        EventMod.LOGGER.info("{}Таймер сработал. Рассылка карточек {} игрокам в течение {} тиков",
+                LOG_PREFIX, players.size(), DISPATCH_WINDOW);
+
+        for (ServerPlayerEntity player : players) {
+            QUEUE.add(player.getUuid());
+        }
+        windowTicksLeft = DISPATCH_WINDOW;
+        successfulSends = 0;
+        failedSends = 0;
+
+        if (!QUEUE.isEmpty()) {
+            dispatch(server);
+        }
+    }
+
+    /**
+     * Отправляет очередную часть раунда.
+     * За тик отправляется не меньше равной доли оставшейся очереди, дальше - пока
+     * не исчерпан бюджет времени; в последнем тике окна отправляется весь остаток.
+     * @param server экземпляр сервера Minecraft
+     */
+    private static void dispatch(MinecraftServer server) {
+        long deadline = System.nanoTime() + TICK_BUDGET_NANOS;
+        int ticksLeft = Math.max(1, windowTicksLeft--);
+        int quota = (QUEUE.size() + ticksLeft - 1) / ticksLeft;
+        boolean lastTick = ticksLeft == 1;
+
+        int sent = 0;
+        while (!QUEUE.isEmpty() && (sent < quota || lastTick || System.nanoTime() < deadline)) {
+            UUID uuid = QUEUE.poll();
+            PreparedOffer prepared = PREPARED.remove(uuid);
+            ServerPlayerEntity player = server.getPlayerManager().getPlayer(uuid);
+            if (player != null) {
+                sendOffer(player, prepared);
             }
+            sent++;
         }
 
-        EventMod.LOGGER.info("{}Выбор карточек отправлен {} игрокам. Успешно: {}, Неудачно: {}",
-                LOG_PREFIX, totalPlayers, successfulSends, failedSends);
+        if (QUEUE.isEmpty()) {
+            // Предложения вышедших игроков больше не понадобятся
+            PREPARED.clear();
+            prepareCursor = 0;
+            EventMod.LOGGER.info("{}Выбор карточек отправлен. Успешно: {}, Неудачно: {}",
+                    LOG_PREFIX, successfulSends, failedSends);
+        }
+    }
+
+    /**
+     * Отправляет предложение игроку, при необходимости вытягивая карточки заново.
+     * @param player игрок
+     * @param prepared заранее подготовленное предложение или null
+     */
+    private static void sendOffer(ServerPlayerEntity player, PreparedOffer prepared) {
+        try {
+            PlayerClass pc = PlayerDataHandler.getPlayerClass(player);
+            if (pc == null) {
+                EventMod.LOGGER.warn("{}Игрок {} не имеет класса. Пропуск.", LOG_PREFIX, player.getName().getString());
+                failedSends++;
+                return;
+            }
+
+            // Класс мог смениться после подготовки предложения
+            OpenCardSelectionPayload payload = prepared != null && prepared.playerClass() == pc
+                    ? prepared.payload()
+                    : drawOffer(player, pc);
+            if (payload == null) {
+                EventMod.LOGGER.warn("{}Недостаточно карточек для класса {}", LOG_PREFIX, pc);
+                failedSends++;
+                return;
+            }
+
+            ServerPlayNetworking.send(player, payload);
+            recordOffer(player, payload);
+
+            EventMod.LOGGER.debug("{}Отправлен выбор карточек игроку: {}. Карточки: {}, {}",
+                    LOG_PREFIX, player.getName().getString(), payload.card1(), payload.card2());
+            successfulSends++;
+
+        } catch (Exception e) {
+            EventMod.LOGGER.error("{}Ошибка при отправке карточек игроку {}: {}",
+                    LOG_PREFIX, player.getName().getString(), e.getMessage(), e);
+            failedSends++;
+        }
     }
 
     /**
-     * Создает полное текстовое описание карточки.
-     * @param card карточка для описания
-     * @return форматированный текст с названием и эффектами
+     * Готовит предложения следующего раунда в пределах бюджета времени тика.
+     * @param server экземпляр сервера Minecraft
      */
-    private static Text createFullCardText(CardRegistry.CardOption card) {
-        return card.name()
-                .copy()
-                .append("\n")
-                .append(card.buffDescription())
-                .append("\n")
-                .append(card.debuffDescription());
+    private static void prepare(MinecraftServer server) {
+        List<ServerPlayerEntity> players = server.getPlayerManager().getPlayerList();
+        // Все предложения готовы; смена класса после подготовки обрабатывается при отправке
+        if (players.isEmpty() || PREPARED.size() >= players.size()) {
+            return;
+        }
+
+        long deadline = System.nanoTime() + TICK_BUDGET_NANOS;
+        for (int checked = 0; checked < players.size() && System.nanoTime() < deadline; checked++) {
+            if (prepareCursor >= players.size()) {
+                prepareCursor = 0;
+            }
+            ServerPlayerEntity player = players.get(prepareCursor++);
+
+            PlayerClass pc = PlayerDataHandler.getPlayerClass(player);
+            PreparedOffer prepared = PREPARED.get(player.getUuid());
+            if (pc == null || (prepared != null && prepared.playerClass() == pc)) {
+                continue;
+            }
+
+            OpenCardSelectionPayload payload = drawOffer(player, pc);
+            if (payload != null) {
+                PREPARED.put(player.getUuid(), new PreparedOffer(pc, payload));
+            }
+        }
     }
-}
\ No newline at end of file
+}
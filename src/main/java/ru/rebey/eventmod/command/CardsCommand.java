@@ -9,20 +9,17 @@ import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 import ru.rebey.eventmod.EventMod;
-import ru.rebey.eventmod.card.CardRegistry;
+import ru.rebey.eventmod.card.CardTimer;
 import ru.rebey.eventmod.data.PlayerClass;
 import ru.rebey.eventmod.data.PlayerDataHandler;
 import ru.rebey.eventmod.network.OpenCardSelectionPayload;
 
-import java.util.*;
-
 /**
  * Команда для принудительной отправки выбора карточек игрокам.
  * Требует уровень разрешения 2.
  */
 public class CardsCommand {
     private static final String LOG_PREFIX = "[CardsCommand] ";
-    private static final Random RANDOM = new Random();
 
     /**
      * Регистрирует команду /eventmod cards.
@@ -69,31 +66,20 @@ public class CardsCommand {
                     continue;
                 }
 
-                CardRegistry.CardOption[] allCards = CardRegistry.getCardsFor(pc);
-                if (allCards.length < 2) {
+                OpenCardSelectionPayload payload = CardTimer.drawOffer(player, pc);
+                if (payload == null) {
                     EventMod.LOGGER.warn("{}Недостаточно карточек для класса {} игрока {}",
                             LOG_PREFIX, pc, player.getName().getString());
                     skippedCount++;
                     continue;
                 }
 
-                // Выбираем 2 случайные карточки
-                List<CardRegistry.CardOption> list = new ArrayList<>(List.of(allCards));
-                Collections.shuffle(list, RANDOM);
-                CardRegistry.CardOption card1 = list.get(0);
-                CardRegistry.CardOption card2 = list.get(1);
-
-                // Формируем описание карточек
-                Text fullText1 = createFullCardText(card1);
-                Text fullText2 = createFullCardText(card2);
-
                 // Отправляем игроку
-                ServerPlayNetworking.send(player, OpenCardSelectionPayload.of(
-                        fullText1, fullText2, card1.id(), card2.id()
-                ));
+                ServerPlayNetworking.send(player, payload);
+                CardTimer.recordOffer(player, payload);
 
                 EventMod.LOGGER.debug("{}Отправлены карточки игроку {}: {} и {}",
-                        LOG_PREFIX, player.getName().getString(), card1.id(), card2.id());
+                        LOG_PREFIX, player.getName().getString(), payload.card1(), payload.card2());
                 sentCount++;
 
             } catch (Exception e) {
@@ -113,18 +99,4 @@ public class CardsCommand {
                 LOG_PREFIX, sentCount, skippedCount);
         return 1;
     }
-
-    /**
-     * Создает полное описание карточки.
-     * @param card карточка для описания
-     * @return форматированный текст
-     */
-    private static Text createFullCardText(CardRegistry.CardOption card) {
-        return card.name()
-                .copy()
-                .append("\n")
-                .append(card.buffDescription())
-                .append("\n")
-                .append(card.debuffDescription());
-    }
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 import ru.rebey.eventmod.EventMod;
+import ru.rebey.eventmod.card.CardRegistry;
 import ru.rebey.eventmod.data.PlayerDataHandler;
 
 import java.util.Set;
@@ -99,22 +100,14 @@ public class MyEffectsCommand {
     }
 
     /**
-     * Получает отображаемое имя карточки по её ID.
+     * Получает отображаемое имя карточки по её ID из текущего каталога.
+     * Если карточка пропала из датапака после перезагрузки, возвращается ее ID.
      * @param cardId ID карточки
      * @return читаемое имя карточки
      */
     private static String getCardDisplayName(String cardId) {
-        switch (cardId) {
-            case "tank_card_1": return "🛡️ Щит души";
-            case "tank_card_2": return "🦾 Железные суставы";
-            case "tank_card_3": return "🛡️ Удар щитом";
-            case "assassin_card_1": return "🎯 Охотник на целых";
-            case "assassin_card_2": return "👻 Призрак ночи";
-            case "assassin_card_3": return "⚡ Скорость разрушения";
-            default:
-                EventMod.LOGGER.warn("{}Неизвестный ID карточки: {}", LOG_PREFIX, cardId);
-                return cardId;
-        }
+        CardRegistry.CardOption card = CardRegistry.getCard(cardId);
+        return card != null ? card.name().getString() : cardId;
     }
 
     /**
@@ -133,6 +126,7 @@ public class MyEffectsCommand {
             case "reduced_health_4": return "💔 -2 сердца";
             case "stealth_effect": return "👻 Стелс";
             case "leather_armor_only": return "🧥 Только слабая броня";
+            case "weapon_restriction": return "⛏️ Только кирки";
             case "increased_speed": return "⚡ Скорость";
             case "fire_inventory_destruction": return "🔥 Горение инвентаря";
             default:
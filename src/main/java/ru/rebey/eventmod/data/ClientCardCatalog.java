@@ -0,0 +1,70 @@
+package ru.rebey.eventmod.data;
+
+import net.minecraft.text.Text;
+import ru.rebey.eventmod.network.CardCatalogPayload;
+
+import java.util.List;
+
+/**
+ * Клиентский каталог карточек.
+ * Хранит последний полученный каталог и его хеш; каталог переживает отключение,
+ * поэтому при повторном входе на сервер с тем же каталогом он не загружается заново.
+ * Полные тексты карточек собираются один раз при получении каталога.
+ * Используется только в потоке клиента.
+ */
+public class ClientCardCatalog {
+    private static final java.util.logging.Logger LOGGER =
+            java.util.logging.Logger.getLogger(ClientCardCatalog.class.getName());
+
+    private static boolean loaded;
+    private static int hash;
+    private static String[] ids = new String[0];
+    private static Text[] texts = new Text[0];
+
+    /**
+     * Проверяет, есть ли у клиента каталог с указанным хешем.
+     * @param catalogHash хеш каталога
+     * @return true если каталог уже загружен
+     */
+    public static boolean hasCatalog(int catalogHash) {
+        return loaded && hash == catalogHash;
+    }
+
+    /**
+     * Сохраняет полученный каталог.
+     * @param catalogHash хеш каталога
+     * @param cards карточки в порядке номеров
+     */
+    public static void setCatalog(int catalogHash, List<CardCatalogPayload.Entry> cards) {
+        String[] newIds = new String[cards.size()];
+        Text[] newTexts = new Text[cards.size()];
+        for (int i = 0; i < cards.size(); i++) {
+            newIds[i] = cards.get(i).id();
+            newTexts[i] = cards.get(i).fullText();
+        }
+
+        ids = newIds;
+        texts = newTexts;
+        hash = catalogHash;
+        loaded = true;
+        LOGGER.fine("Получен каталог карточек: " + cards.size() + " карточек, хеш " + Integer.toHexString(catalogHash));
+    }
+
+    /**
+     * Получает ID карточки.
+     * @param index номер карточки
+     * @return ID карточки
+     */
+    public static String getId(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Получает полное описание карточки.
+     * @param index номер карточки
+     * @return название, бафф и дебафф карточки
+     */
+    public static Text getText(int index) {
+        return texts[index];
+    }
+}
@@ -1,31 +1,102 @@
 package ru.rebey.eventmod.data;
 
+import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap;
+import ru.rebey.eventmod.network.PlayerListDeltaPayload;
 import ru.rebey.eventmod.network.SyncAllPlayersPayload;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Клиентский класс для хранения списка игроков и их данных.
- * Потокобезопасное хранилище информации об игроках на клиенте.
+ * Список собирается из полного снимка и последующих изменений с сервера.
+ * Изменяется только в потоке клиента; HUD читает неизменяемую копию.
  */
 public class ClientPlayerList {
     private static final java.util.logging.Logger LOGGER =
             java.util.logging.Logger.getLogger(ClientPlayerList.class.getName());
 
-    private static final List<SyncAllPlayersPayload.PlayerInfo> PLAYERS =
-            new CopyOnWriteArrayList<>();
+    // Значение "снимок еще не получен"
+    public static final int NO_VERSION = -1;
+
+    // Игроки по индексу сессии в порядке добавления
+    private static final Int2ObjectLinkedOpenHashMap<SyncAllPlayersPayload.PlayerInfo> PLAYERS =
+            new Int2ObjectLinkedOpenHashMap<>();
+
+    // Неизменяемая копия для HUD, пересобирается только при изменениях
+    private static volatile List<SyncAllPlayersPayload.PlayerInfo> view = Collections.emptyList();
+
+    private static int version = NO_VERSION;
 
     /**
-     * Устанавливает список игроков.
+     * Заменяет список игроков полным снимком.
+     * @param snapshotVersion версия снимка
      * @param players новый список игроков
      */
-    public static void setPlayers(List<SyncAllPlayersPayload.PlayerInfo> players) {
-        LOGGER.fine("Установка списка игроков. Новое количество: " + players.size());
+    public static void setPlayers(int snapshotVersion, List<SyncAllPlayersPayload.PlayerInfo> players) {
+        LOGGER.fine("Установка списка игроков. Версия: " + snapshotVersion + ", количество: " + players.size());
+        PLAYERS.clear();
+        for (SyncAllPlayersPayload.PlayerInfo info : players) {
+            PLAYERS.put(info.sessionIndex(), info);
+        }
+        version = snapshotVersion;
+        rebuildView();
+    }
+
+    /**
+     * Применяет изменения списка игроков.
+     * @param deltaVersion версия списка после изменений
+     * @param changes изменения
+     * @return false если версия не следует за текущей и нужен полный снимок
+     */
+    public static boolean applyDelta(int deltaVersion, List<PlayerListDeltaPayload.Change> changes) {
+        if (version == NO_VERSION) {
+            // Снимок еще не получен: он уже содержит эти изменения или будет запрошен
+            return true;
+        }
+        if (deltaVersion != version + 1) {
+            LOGGER.warning("Пропущена версия списка игроков: ожидалась " + (version + 1)
+                    + ", получена " + deltaVersion);
+            version = NO_VERSION;
+            return false;
+        }
+
+        for (PlayerListDeltaPayload.Change change : changes) {
+            SyncAllPlayersPayload.PlayerInfo info = change.info();
+            switch (change.operation()) {
+                case ADD -> PLAYERS.put(info.sessionIndex(), info);
+                case REMOVE -> PLAYERS.remove(info.sessionIndex());
+                case CHANGE -> {
+                    // CHANGE не несет имени: обновляем известную запись
+                    SyncAllPlayersPayload.PlayerInfo existing = PLAYERS.get(info.sessionIndex());
+                    if (existing == null) {
+                        LOGGER.warning("Изменение для неизвестного индекса сессии: " + info.sessionIndex());
+                        version = NO_VERSION;
+                        return false;
+                    }
+                    PLAYERS.put(info.sessionIndex(), existing.withData(info.playerClass(), info.team()));
+                }
+            }
+        }
+        version = deltaVersion;
+        rebuildView();
+
+        LOGGER.finest("Применено изменений: " + changes.size() + ", версия: " + version);
+        return true;
+    }
+
+    private static void rebuildView() {
+        view = Collections.unmodifiableList(new ArrayList<>(PLAYERS.values()));
+    }
+
+    /**
+     * Очищает список игроков (при отключении от сервера).
+     */
+    public static void clear() {
         PLAYERS.clear();
-        PLAYERS.addAll(players);
-        LOGGER.fine("Список игроков обновлен. Всего игроков: " + PLAYERS.size());
+        version = NO_VERSION;
+        rebuildView();
     }
 
     /**
@@ -33,7 +104,14 @@ public class ClientPlayerList {
      * @return список игроков
      */
     public static List<SyncAllPlayersPayload.PlayerInfo> getPlayers() {
-        LOGGER.finest("Получение списка игроков. Всего: " + PLAYERS.size());
-        return Collections.unmodifiableList(PLAYERS);
+        return view;
+    }
+
+    /**
+     * Получает версию списка на клиенте.
+     * @return версия или NO_VERSION если снимок не получен
+     */
+    public static int getVersion() {
+        return version;
     }
-}
\ No newline at end of file
+}
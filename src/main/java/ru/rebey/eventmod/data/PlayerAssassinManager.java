@@ -3,39 +3,28 @@ package ru.rebey.eventmod.data;
 import net.minecraft.server.network.ServerPlayerEntity;
 import ru.rebey.eventmod.EventMod;
 
+import java.util.Arrays;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Менеджер для управления механикой ассасина.
  * Отслеживает атаки и определяет, когда применять бонусный урон.
+ * Время атак хранится в примитивной таблице пар (ассасин, цель), адресуемой плотными
+ * индексами сессий, поэтому проверка не создает объектов и не зависит от системных часов.
+ * Все данные меняются только в потоке сервера.
  */
 public class PlayerAssassinManager {
     private static final String LOG_PREFIX = "[PlayerAssassinManager] ";
-    private static final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-
-    // Кэш для предотвращения спама урона в один тик
-    private static final ConcurrentHashMap<String, Long> RECENT_ATTACKS = new ConcurrentHashMap<>();
-    private static final long ATTACK_COOLDOWN_MS = 100; // 0.1 секунды
-
-    static {
-        // Регистрация хука завершения работы для корректного завершения планировщика
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            EventMod.LOGGER.info("{}Завершение работы планировщика", LOG_PREFIX);
-            scheduler.shutdown();
-            try {
-                if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                    scheduler.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                scheduler.shutdownNow();
-                Thread.currentThread().interrupt();
-            }
-        }));
-    }
+
+    // Кулдаун бонусного урона для одной пары (чтобы не спамить уроном в одном тике)
+    private static final int ATTACK_COOLDOWN_TICKS = 2; // 0.1 секунды
+
+    // Начальная сторона таблицы пар (степень двойки)
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Таблица пар: [assassinIndex * capacity + targetIndex] = тик атаки + 1 (0 = атак не было)
+    private static int capacity = INITIAL_CAPACITY;
+    private static int[] lastAttackTicks = new int[INITIAL_CAPACITY * INITIAL_CAPACITY];
 
     /**
      * Проверяет, должен ли применяться бонусный урон ассасина.
@@ -44,32 +33,69 @@ public class PlayerAssassinManager {
      * @return true если нужно применить бонусный урон
      */
     public boolean shouldApplyBonusDamage(ServerPlayerEntity assassin, ServerPlayerEntity target) {
-        // Создаем уникальный ключ для этой пары атака-цель
-        String attackKey = assassin.getUuid() + "-" + target.getUuid();
-        Long lastAttackTime = RECENT_ATTACKS.get(attackKey);
-        long currentTime = System.currentTimeMillis();
+        int assassinIndex = PlayerSessionRegistry.indexOf(assassin);
+        int targetIndex = PlayerSessionRegistry.indexOf(target);
+        ensureCapacity(Math.max(assassinIndex, targetIndex) + 1);
+
+        int cell = assassinIndex * capacity + targetIndex;
+        int stamp = lastAttackTicks[cell];
+        int currentTick = assassin.getServer().getTicks();
 
         // Проверяем кд (чтобы не спамить уроном в одном тике)
-        if (lastAttackTime != null && currentTime - lastAttackTime < ATTACK_COOLDOWN_MS) {
-            EventMod.LOGGER.debug("{}Атака от {} к {} находится на кд",
-                    LOG_PREFIX, assassin.getName().getString(), target.getName().getString());
-            return false;
+        if (stamp != 0) {
+            int elapsed = currentTick - (stamp - 1);
+            if (elapsed >= 0 && elapsed < ATTACK_COOLDOWN_TICKS) {
+                EventMod.LOGGER.trace("{}Атака {} -> {} находится на кд", LOG_PREFIX, assassinIndex, targetIndex);
+                return false;
+            }
         }
 
         // Обновляем время последней атаки
-        RECENT_ATTACKS.put(attackKey, currentTime);
-        EventMod.LOGGER.debug("{}Зарегистрирована атака от {} к {}",
-                LOG_PREFIX, assassin.getName().getString(), target.getName().getString());
-
-        // Через 1 секунду очищаем запись
-        scheduler.schedule(() -> {
-            RECENT_ATTACKS.remove(attackKey);
-            EventMod.LOGGER.trace("{}Очищен кд атаки для ключа: {}", LOG_PREFIX, attackKey);
-        }, 1, TimeUnit.SECONDS);
+        lastAttackTicks[cell] = currentTick + 1;
+        EventMod.LOGGER.trace("{}Зарегистрирована атака {} -> {}", LOG_PREFIX, assassinIndex, targetIndex);
 
         return true;
     }
 
+    /**
+     * Расширяет таблицу пар, чтобы она вмещала заданное количество индексов.
+     * @param required требуемая сторона таблицы
+     */
+    private static void ensureCapacity(int required) {
+        if (required <= capacity) {
+            return;
+        }
+
+        int newCapacity = capacity;
+        while (newCapacity < required) {
+            newCapacity <<= 1;
+        }
+
+        int[] newTable = new int[newCapacity * newCapacity];
+        for (int row = 0; row < capacity; row++) {
+            System.arraycopy(lastAttackTicks, row * capacity, newTable, row * newCapacity, capacity);
+        }
+
+        EventMod.LOGGER.debug("{}Таблица пар расширена: {} -> {}", LOG_PREFIX, capacity, newCapacity);
+        capacity = newCapacity;
+        lastAttackTicks = newTable;
+    }
+
+    /**
+     * Очищает строку и столбец таблицы для индекса сессии.
+     * @param index индекс сессии
+     */
+    private static void clearIndex(int index) {
+        if (index < 0 || index >= capacity) {
+            return;
+        }
+
+        Arrays.fill(lastAttackTicks, index * capacity, (index + 1) * capacity, 0);
+        for (int row = 0; row < capacity; row++) {
+            lastAttackTicks[row * capacity + index] = 0;
+        }
+    }
+
     /**
      * Отмечает цель как пораженную (для обратной совместимости).
      * @param assassinUuid UUID ассасина
@@ -112,10 +138,18 @@ public class PlayerAssassinManager {
     }
 
     /**
-     * Удаляет данные ассасина (для обратной совместимости).
-     * @param uuid UUID игрока
+     * Удаляет данные игрока из таблицы пар.
+     * Вызывается до освобождения индекса сессии, чтобы следующий игрок с этим индексом
+     * не унаследовал чужие кулдауны.
+     * @param player игрок
      */
-    public void removeAssassinData(UUID uuid) {
-        EventMod.LOGGER.debug("{}Удаление данных ассасина: {}", LOG_PREFIX, uuid);
+    public void removeAssassinData(ServerPlayerEntity player) {
+        PlayerState state = PlayerState.peek(player);
+        if (state == null || state.getSessionIndex() == PlayerSessionRegistry.NO_INDEX) {
+            return;
+        }
+
+        clearIndex(state.getSessionIndex());
+        EventMod.LOGGER.debug("{}Удаление данных ассасина: {}", LOG_PREFIX, player.getName().getString());
     }
 }
\ No newline at end of file
@@ -3,77 +3,57 @@ package ru.rebey.eventmod.data;
 import net.minecraft.server.network.ServerPlayerEntity;
 import ru.rebey.eventmod.EventMod;
 
-import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-
 /**
  * Менеджер для управления активными карточками игроков.
- * Хранит информацию о текущей выбранной карточке для каждого игрока.
+ * Текущая выбранная карточка хранится в состоянии игрока (PlayerState).
  */
 public class PlayerCardManager {
     private static final String LOG_PREFIX = "[PlayerCardManager] ";
-    private static final Map<UUID, String> ACTIVE_CARDS = new ConcurrentHashMap<>();
 
     /**
      * Устанавливает активную карточку для игрока.
-     * @param uuid UUID игрока
+     * @param player игрок
      * @param cardId ID карточки
      */
-    public void setActiveCard(UUID uuid, String cardId) {
+    public void setActiveCard(ServerPlayerEntity player, String cardId) {
+        PlayerState state = PlayerState.of(player);
+        String playerName = player.getName().getString();
+
         if (cardId == null) {
-            String removed = ACTIVE_CARDS.remove(uuid);
-            EventMod.LOGGER.info("{}Удалена активная карточка для UUID {} (была: {})",
-                    LOG_PREFIX, uuid, removed);
+            String removed = state.getActiveCard();
+            state.setActiveCard(null);
+            EventMod.LOGGER.info("{}Удалена активная карточка для игрока {} (была: {})",
+                    LOG_PREFIX, playerName, removed);
         } else {
-            ACTIVE_CARDS.put(uuid, cardId);
-            EventMod.LOGGER.info("{}Установлена активная карточка для UUID {}: {}",
-                    LOG_PREFIX, uuid, cardId);
+            state.setActiveCard(cardId);
+            EventMod.LOGGER.info("{}Установлена активная карточка для игрока {}: {}",
+                    LOG_PREFIX, playerName, cardId);
         }
     }
 
-    /**
-     * Получает активную карточку игрока по UUID.
-     * @param uuid UUID игрока
-     * @return ID активной карточки или null
-     */
-    public String getActiveCard(UUID uuid) {
-        String cardId = ACTIVE_CARDS.get(uuid);
-        EventMod.LOGGER.debug("{}Получена активная карточка для UUID {}: {}",
-                LOG_PREFIX, uuid, cardId);
-        return cardId;
-    }
-
     /**
      * Получает активную карточку игрока.
      * @param player игрок
      * @return ID активной карточки или null
      */
     public String getActiveCard(ServerPlayerEntity player) {
-        UUID uuid = player.getUuid();
-        String cardId = ACTIVE_CARDS.get(uuid);
-        EventMod.LOGGER.debug("{}Получена активная карточка для игрока {}: {}",
+        PlayerState state = PlayerState.peek(player);
+        String cardId = state != null ? state.getActiveCard() : null;
+        EventMod.LOGGER.trace("{}Получена активная карточка для игрока {}: {}",
                 LOG_PREFIX, player.getName().getString(), cardId);
         return cardId;
     }
 
     /**
      * Удаляет активную карточку игрока.
-     * @param uuid UUID игрока
+     * @param player игрок
      */
-    public void removeActiveCard(UUID uuid) {
-        String removed = ACTIVE_CARDS.remove(uuid);
-        if (removed != null) {
-            EventMod.LOGGER.info("{}Удалена активная карточка для UUID {}: {}",
-                    LOG_PREFIX, uuid, removed);
+    public void removeActiveCard(ServerPlayerEntity player) {
+        PlayerState state = PlayerState.peek(player);
+        if (state != null && state.getActiveCard() != null) {
+            EventMod.LOGGER.info("{}Удалена активная карточка для игрока {}: {}",
+                    LOG_PREFIX, player.getName().getString(), state.getActiveCard());
+            state.setActiveCard(null);
         }
     }
-
-    /**
-     * Получает количество игроков с активными карточками.
-     * @return количество игроков
-     */
-    public int getPlayerCount() {
-        return ACTIVE_CARDS.size();
-    }
-}
\ No newline at end of file
+}
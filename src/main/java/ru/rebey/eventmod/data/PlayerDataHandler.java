@@ -3,6 +3,7 @@ package ru.rebey.eventmod.data;
 import net.fabricmc.fabric.api.entity.event.v1.ServerPlayerEvents;
 import net.minecraft.server.network.ServerPlayerEntity;
 import ru.rebey.eventmod.EventMod;
+import ru.rebey.eventmod.effect.EffectType;
 import ru.rebey.eventmod.team.PlayerTeam;
 
 import java.util.Collections;
@@ -22,11 +23,9 @@ public class PlayerDataHandler {
         EventMod.LOGGER.info("{}Регистрация событий смерти/респавна", LOG_PREFIX);
 
         ServerPlayerEvents.COPY_FROM.register((oldPlayer, newPlayer, alive) -> {
-            if (!alive) {
-                EventMod.LOGGER.debug("{}Событие COPY_FROM для игрока {} (alive: {})",
-                        LOG_PREFIX, oldPlayer.getName().getString(), alive);
-                PlayerDataManager.onPlayerDeath(oldPlayer);
-            }
+            EventMod.LOGGER.debug("{}Событие COPY_FROM для игрока {} (alive: {})",
+                    LOG_PREFIX, oldPlayer.getName().getString(), alive);
+            PlayerDataManager.onPlayerCopy(oldPlayer, newPlayer);
         });
 
         ServerPlayerEvents.AFTER_RESPAWN.register((oldPlayer, newPlayer, alive) -> {
@@ -121,16 +120,33 @@ public class PlayerDataHandler {
         return effects;
     }
 
+    /**
+     * Получает маску активных эффектов игрока.
+     * @param player игрок
+     * @return маска эффектов
+     */
+    public static long getEffectMask(ServerPlayerEntity player) {
+        return PlayerDataManager.getEffectMask(player);
+    }
+
+    /**
+     * Проверяет наличие эффекта у игрока.
+     * Используется в горячих путях (миксинах), поэтому не логирует.
+     * @param player игрок
+     * @param type тип эффекта
+     * @return true если эффект активен
+     */
+    public static boolean hasEffect(ServerPlayerEntity player, EffectType type) {
+        return PlayerDataManager.hasEffect(player, type);
+    }
+
     /**
      * Проверяет, имеет ли игрок снижение урона от падения.
      * @param player игрок
      * @return true если эффект активен
      */
     public static boolean hasFallDamageReduction(ServerPlayerEntity player) {
-        boolean hasEffect = PlayerDataManager.hasFallDamageReduction(player);
-        EventMod.LOGGER.trace("{}Проверка снижения урона от падения для игрока {}: {}",
-                LOG_PREFIX, player.getName().getString(), hasEffect);
-        return hasEffect;
+        return PlayerDataManager.hasFallDamageReduction(player);
     }
 
     /**
@@ -139,10 +155,7 @@ public class PlayerDataHandler {
      * @return true если эффект активен
      */
     public static boolean isShieldKnockbackActive(ServerPlayerEntity player) {
-        boolean isActive = PlayerDataManager.isShieldKnockbackActive(player);
-        EventMod.LOGGER.trace("{}Проверка отталкивания щитом для игрока {}: {}",
-                LOG_PREFIX, player.getName().getString(), isActive);
-        return isActive;
+        return PlayerDataManager.isShieldKnockbackActive(player);
     }
 
     /**
@@ -214,43 +227,11 @@ public class PlayerDataHandler {
 
     /**
      * Удаляет все данные игрока.
-     * @param uuid UUID игрока
-     */
-    public static void removePlayerData(UUID uuid) {
-        EventMod.LOGGER.debug("{}Удаление всех данных для UUID {}", LOG_PREFIX, uuid);
-        PlayerDataManager.removePlayerData(uuid);
-    }
-
-    // === НОВЫЙ МЕТОД для AssassinDamageMixin ===
-
-    /**
-     * Проверяет, должен ли применяться бонусный урон ассасина.
-     * @param assassin атакующий игрок (ассасин)
-     * @param target целевой игрок
-     * @return true если нужно применить бонусный урон
+     * @param player игрок
      */
-    public static boolean shouldApplyAssassinBonus(ServerPlayerEntity assassin, ServerPlayerEntity target) {
-        // Проверяем, есть ли у ассасина эффект assassin_strength
-        if (!PlayerDataManager.getAllActiveEffects(assassin).contains("assassin_strength")) {
-            EventMod.LOGGER.trace("{}У ассасина {} нет эффекта assassin_strength",
-                    LOG_PREFIX, assassin.getName().getString());
-            return false;
-        }
-
-        // Проверяем, что цель имеет полное здоровье
-        boolean hasFullHealth = target.getHealth() >= target.getMaxHealth();
-
-        if (!hasFullHealth) {
-            EventMod.LOGGER.trace("{}Цель {} не имеет полного здоровья: {}/{}",
-                    LOG_PREFIX, target.getName().getString(), target.getHealth(), target.getMaxHealth());
-            return false;
-        }
-
-        EventMod.LOGGER.debug("{}Цель {} имеет полное HP: {}/{}. Применение бонусного урона от ассасина {}",
-                LOG_PREFIX, target.getName().getString(), target.getHealth(), target.getMaxHealth(),
-                assassin.getName().getString());
-
-        return true;
+    public static void removePlayerData(ServerPlayerEntity player) {
+        EventMod.LOGGER.debug("{}Удаление всех данных для игрока {}", LOG_PREFIX, player.getName().getString());
+        PlayerDataManager.removePlayerData(player);
     }
 
     // === НОВЫЙ МЕТОД для получения эффектов по UUID ===
@@ -2,10 +2,11 @@ package ru.rebey.eventmod.data;
 
 import net.minecraft.server.network.ServerPlayerEntity;
 import ru.rebey.eventmod.EventMod;
+import ru.rebey.eventmod.effect.EffectType;
+import ru.rebey.eventmod.playerlist.PlayerListSync;
 import ru.rebey.eventmod.team.PlayerTeam;
 
 import java.util.Set;
-import java.util.UUID;
 
 /**
  * Главный координатор для управления всеми данными игрока.
@@ -19,7 +20,6 @@ public class PlayerDataManager {
     private static final PlayerTeamManager teamManager = new PlayerTeamManager();
     private static final PlayerCardManager cardManager = new PlayerCardManager();
     private static final PlayerEffectManager effectManager = new PlayerEffectManager();
-    private static final PlayerDeathCacheManager deathCacheManager = new PlayerDeathCacheManager();
     private static final PlayerAssassinManager assassinManager = new PlayerAssassinManager();
 
     /**
@@ -27,7 +27,7 @@ public class PlayerDataManager {
      */
     static {
         EventMod.LOGGER.info("{}Инициализация менеджера данных игрока", LOG_PREFIX);
-        EventMod.LOGGER.info("{}Зарегистрировано менеджеров: 6", LOG_PREFIX);
+        EventMod.LOGGER.info("{}Зарегистрировано менеджеров: 5", LOG_PREFIX);
     }
 
     // === Публичные методы для внешнего использования ===
@@ -39,21 +39,7 @@ public class PlayerDataManager {
      * @return true если нужно применить бонусный урон
      */
     public static boolean shouldApplyAssassinBonus(ServerPlayerEntity assassin, ServerPlayerEntity target) {
-        boolean shouldApply = assassinManager.shouldApplyBonusDamage(assassin, target);
-        EventMod.LOGGER.trace("{}Проверка бонусного урона ассасина {} -> {}: {}",
-                LOG_PREFIX, assassin.getName().getString(), target.getName().getString(), shouldApply);
-        return shouldApply;
-    }
-
-    /**
-     * Получает все активные эффекты игрока по UUID.
-     * @param uuid UUID игрока
-     * @return множество ID эффектов
-     */
-    public static Set<String> getAllActiveEffects(UUID uuid) {
-        Set<String> effects = effectManager.getAllActiveEffects(uuid);
-        EventMod.LOGGER.trace("{}Получение эффектов для UUID {}: {}", LOG_PREFIX, uuid, effects.size());
-        return effects;
+        return assassinManager.shouldApplyBonusDamage(assassin, target);
     }
 
     /**
@@ -65,6 +51,7 @@ public class PlayerDataManager {
         EventMod.LOGGER.debug("{}Установка класса для игрока {}: {}",
                 LOG_PREFIX, player.getName().getString(), playerClass);
         classManager.setPlayerClass(player, playerClass);
+        PlayerListSync.markDirty(player);
     }
 
     /**
@@ -88,6 +75,7 @@ public class PlayerDataManager {
         EventMod.LOGGER.debug("{}Установка команды для игрока {}: {}",
                 LOG_PREFIX, player.getName().getString(), team);
         teamManager.setPlayerTeam(player, team);
+        PlayerListSync.markDirty(player);
     }
 
     /**
@@ -108,7 +96,6 @@ public class PlayerDataManager {
      * @param cardId ID карточки
      */
     public static void setActiveCard(ServerPlayerEntity player, String cardId) {
-        UUID uuid = player.getUuid();
         String playerName = player.getName().getString();
         PlayerClass pc = getPlayerClass(player);
 
@@ -122,7 +109,7 @@ public class PlayerDataManager {
                 LOG_PREFIX, playerName, cardId, pc);
 
         // Сохраняем карточку
-        cardManager.setActiveCard(uuid, cardId);
+        cardManager.setActiveCard(player, cardId);
 
         // Активируем её эффекты
         effectManager.activateCardEffects(player, cardId, pc);
@@ -134,7 +121,7 @@ public class PlayerDataManager {
      * @return ID активной карточки или null
      */
     public static String getActiveCard(ServerPlayerEntity player) {
-        String cardId = cardManager.getActiveCard(player.getUuid());
+        String cardId = cardManager.getActiveCard(player);
         EventMod.LOGGER.trace("{}Получение активной карточки для игрока {}: {}",
                 LOG_PREFIX, player.getName().getString(), cardId);
         return cardId;
@@ -146,12 +133,32 @@ public class PlayerDataManager {
      * @return множество ID эффектов
      */
     public static Set<String> getAllActiveEffects(ServerPlayerEntity player) {
-        Set<String> effects = effectManager.getAllActiveEffects(player.getUuid());
+        Set<String> effects = effectManager.getAllActiveEffects(player);
         EventMod.LOGGER.trace("{}Получение активных эффектов для игрока {}: {}",
                 LOG_PREFIX, player.getName().getString(), effects.size());
         return effects;
     }
 
+    /**
+     * Получает маску активных эффектов игрока.
+     * @param player игрок
+     * @return маска эффектов
+     */
+    public static long getEffectMask(ServerPlayerEntity player) {
+        return effectManager.getEffectMask(player);
+    }
+
+    /**
+     * Проверяет наличие эффекта у игрока по маске эффектов.
+     * Используется в горячих путях (миксинах), поэтому не логирует.
+     * @param player игрок
+     * @param type тип эффекта
+     * @return true если эффект активен
+     */
+    public static boolean hasEffect(ServerPlayerEntity player, EffectType type) {
+        return effectManager.hasEffect(player, type);
+    }
+
     /**
      * Проверяет наличие эффекта у игрока.
      * @param player игрок
@@ -159,7 +166,7 @@ public class PlayerDataManager {
      * @return true если эффект активен
      */
     public static boolean hasEffect(ServerPlayerEntity player, String effectId) {
-        boolean hasEffect = effectManager.hasEffect(player.getUuid(), effectId);
+        boolean hasEffect = effectManager.hasEffect(player, effectId);
         EventMod.LOGGER.trace("{}Проверка эффекта {} у игрока {}: {}",
                 LOG_PREFIX, effectId, player.getName().getString(), hasEffect);
         return hasEffect;
@@ -171,7 +178,7 @@ public class PlayerDataManager {
      * @return true если эффект активен
      */
     public static boolean hasFallDamageReduction(ServerPlayerEntity player) {
-        return hasEffect(player, "fall_damage_reduction");
+        return hasEffect(player, EffectType.FALL_DAMAGE_REDUCTION);
     }
 
     /**
@@ -180,7 +187,7 @@ public class PlayerDataManager {
      * @return true если эффект активен
      */
     public static boolean isShieldKnockbackActive(ServerPlayerEntity player) {
-        return hasEffect(player, "shield_knockback");
+        return hasEffect(player, EffectType.SHIELD_KNOCKBACK);
     }
 
     /**
@@ -251,23 +258,14 @@ public class PlayerDataManager {
     }
 
     /**
-     * Обрабатывает смерть игрока.
-     * @param player умерший игрок
+     * Переносит данные игрока на новую сущность (возрождение или возвращение из Энда).
+     * @param oldPlayer старая сущность игрока
+     * @param newPlayer новая сущность игрока
      */
-    public static void onPlayerDeath(ServerPlayerEntity player) {
-        EventMod.LOGGER.info("{}Сохранение данных при смерти игрока: {}",
-                LOG_PREFIX, player.getName().getString());
-
-        UUID uuid = player.getUuid();
-        PlayerDeathCacheManager.DeathData deathData = new PlayerDeathCacheManager.DeathData(
-                classManager.getPlayerClass(uuid),
-                teamManager.getPlayerTeam(uuid),
-                cardManager.getActiveCard(uuid),
-                effectManager.getActiveEffects(uuid),
-                effectManager.getHealthModifier(uuid)
-        );
-
-        deathCacheManager.saveDeathData(uuid, deathData);
+    public static void onPlayerCopy(ServerPlayerEntity oldPlayer, ServerPlayerEntity newPlayer) {
+        EventMod.LOGGER.debug("{}Перенос данных игрока {} на новую сущность",
+                LOG_PREFIX, newPlayer.getName().getString());
+        PlayerState.transfer(oldPlayer, newPlayer);
     }
 
     /**
@@ -278,60 +276,39 @@ public class PlayerDataManager {
         EventMod.LOGGER.info("{}Восстановление данных при возрождении игрока: {}",
                 LOG_PREFIX, player.getName().getString());
 
-        UUID uuid = player.getUuid();
-        PlayerDeathCacheManager.DeathData deathData = deathCacheManager.getDeathData(uuid);
-
-        if (deathData != null) {
-            EventMod.LOGGER.debug("{}Найдены сохраненные данные для игрока {}",
-                    LOG_PREFIX, player.getName().getString());
-
-            // Восстанавливаем данные
-            if (deathData.playerClass() != null) {
-                classManager.setPlayerClass(uuid, deathData.playerClass());
-            }
-            if (deathData.team() != null && deathData.team() != PlayerTeam.NONE) {
-                teamManager.setPlayerTeam(uuid, deathData.team());
-            }
-            if (deathData.activeCard() != null) {
-                cardManager.setActiveCard(uuid, deathData.activeCard());
-            }
-
-            // Восстанавливаем эффекты
-            effectManager.restoreEffects(player, deathData);
-
-            // Очищаем кэш
-            deathCacheManager.removeDeathData(uuid);
-        } else {
-            EventMod.LOGGER.warn("{}Не найдены сохраненные данные для игрока {}",
+        PlayerState state = PlayerState.peek(player);
+        if (state == null) {
+            EventMod.LOGGER.debug("{}Нет данных для восстановления игрока {}",
                     LOG_PREFIX, player.getName().getString());
+            return;
         }
+
+        EventMod.LOGGER.debug("{}Данные игрока {}: {}", LOG_PREFIX, player.getName().getString(), state);
+        effectManager.restoreEffects(player);
     }
 
     /**
-     * Удаляет все данные игрока.
-     * @param uuid UUID игрока
+     * Заново применяет эффекты с параметрами из датапака после их перезагрузки.
+     * @param player игрок
      */
-    public static void removePlayerData(UUID uuid) {
-        EventMod.LOGGER.info("{}Удаление всех данных для UUID: {}", LOG_PREFIX, uuid);
-
-        classManager.removePlayerClass(uuid);
-        teamManager.removePlayerTeam(uuid);
-        cardManager.removeActiveCard(uuid);
-        effectManager.removePlayerEffects(uuid);
-        assassinManager.removeAssassinData(uuid);
-        deathCacheManager.removeDeathData(uuid);
-
-        EventMod.LOGGER.debug("{}Все данные для UUID {} удалены", LOG_PREFIX, uuid);
+    public static void refreshParameterEffects(ServerPlayerEntity player) {
+        effectManager.refreshParameterEffects(player);
     }
 
     /**
-     * Получает статистику использования менеджеров.
-     * @return строка со статистикой
+     * Удаляет все данные игрока.
+     * @param player игрок
      */
-    public static String getStats() {
-        return String.format("PlayerDataManager Stats: Classes=%d, Teams=%d, Cards=%d",
-                classManager.getPlayerCount(),
-                0, // teamManager не имеет метода getPlayerCount
-                cardManager.getPlayerCount());
+    public static void removePlayerData(ServerPlayerEntity player) {
+        String playerName = player.getName().getString();
+        EventMod.LOGGER.info("{}Удаление всех данных для игрока: {}", LOG_PREFIX, playerName);
+
+        effectManager.removePlayerEffects(player);
+        classManager.removePlayerClass(player);
+        teamManager.removePlayerTeam(player);
+        cardManager.removeActiveCard(player);
+        assassinManager.removeAssassinData(player);
+
+        EventMod.LOGGER.debug("{}Все данные для игрока {} удалены", LOG_PREFIX, playerName);
     }
-}
\ No newline at end of file
+}
@@ -4,48 +4,23 @@ import net.minecraft.entity.attribute.EntityAttributeModifier;
 import net.minecraft.entity.attribute.EntityAttributes;
 import net.minecraft.server.network.ServerPlayerEntity;
 import ru.rebey.eventmod.EventMod;
+import ru.rebey.eventmod.card.CardRegistry;
 import ru.rebey.eventmod.effect.*;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Менеджер для управления эффектами игроков.
  * Обрабатывает активацию, деактивацию и хранение эффектов карточек.
+ * Маска эффектов и модификатор здоровья хранятся в состоянии игрока (PlayerState).
  */
 public class PlayerEffectManager {
     private static final String LOG_PREFIX = "[PlayerEffectManager] ";
     private static final String HEALTH_MODIFIER_ID = "eventmod:extra_health";
 
-    // Хранилища данных
-    private final Map<UUID, Set<String>> activeEffects = new ConcurrentHashMap<>();
-    private final Map<UUID, Double> healthModifiers = new ConcurrentHashMap<>();
-
-    // Карта эффектов для карточек
-    private static final Map<String, List<String>> CARD_EFFECTS_MAP = createCardEffectsMap();
-
-    /**
-     * Создает карту соответствия карточек и их эффектов.
-     * @return карта эффектов для каждой карточки
-     */
-    private static Map<String, List<String>> createCardEffectsMap() {
-        EventMod.LOGGER.info("{}Создание карты эффектов карточек", LOG_PREFIX);
-
-        Map<String, List<String>> map = new HashMap<>();
-
-        // Танк карточки
-        map.put("tank_card_1", Arrays.asList("extra_health_8", "tank_slowness"));
-        map.put("tank_card_2", Arrays.asList("fall_damage_reduction"));
-        map.put("tank_card_3", Arrays.asList("shield_knockback", "hunger_drain"));
-
-        // Ассасин карточки
-        map.put("assassin_card_1", Arrays.asList("assassin_strength", "reduced_health_4"));
-        map.put("assassin_card_2", Arrays.asList("stealth_effect", "leather_armor_only"));
-        map.put("assassin_card_3", Arrays.asList("increased_speed", "fire_inventory_destruction"));
-
-        EventMod.LOGGER.debug("{}Создана карта для {} карточек", LOG_PREFIX, map.size());
-        return map;
-    }
+    // Маски эффектов, которые восстанавливаются отдельно через модификатор здоровья
+    private static final long HEALTH_EFFECTS_MASK =
+            EffectType.maskOf(EffectType.EXTRA_HEALTH_8, EffectType.REDUCED_HEALTH_4);
 
     /**
      * Активирует эффекты карточки для игрока.
@@ -54,96 +29,98 @@ public class PlayerEffectManager {
      * @param playerClass класс игрока
      */
     public void activateCardEffects(ServerPlayerEntity player, String cardId, PlayerClass playerClass) {
-        UUID uuid = player.getUuid();
+        PlayerState state = PlayerState.of(player);
         String playerName = player.getName().getString();
 
         EventMod.LOGGER.info("{}Активация эффектов карточки для игрока {}: {} (класс: {})",
                 LOG_PREFIX, playerName, cardId, playerClass);
 
-        List<String> effects = CARD_EFFECTS_MAP.get(cardId);
-        if (effects == null) {
+        // Эффекты карточек задаются датапаком (см. CardDataLoader)
+        CardRegistry.CardOption card = CardRegistry.getCard(cardId);
+        if (card == null) {
             EventMod.LOGGER.warn("{}Неизвестный ID карточки: {}", LOG_PREFIX, cardId);
             return;
         }
+        long cardMask = card.effectMask();
 
         // Получаем текущие эффекты игрока
-        Set<String> playerEffects = activeEffects.computeIfAbsent(uuid, k -> new HashSet<>());
-        EventMod.LOGGER.debug("{}Текущие эффекты игрока {}: {}", LOG_PREFIX, playerName, playerEffects);
-
-        // Добавляем новые эффекты
-        int addedCount = 0;
-        for (String effectId : effects) {
-            if (playerEffects.add(effectId)) {
-                EventMod.LOGGER.info("{}  Добавлен эффект: {} для игрока {}",
-                        LOG_PREFIX, effectId, playerName);
-                applyEffectById(player, effectId, playerClass);
-                addedCount++;
-            } else {
-                EventMod.LOGGER.debug("{}  Эффект {} уже активен у игрока {}",
-                        LOG_PREFIX, effectId, playerName);
-            }
+        long currentMask = state.getEffectMask();
+        EventMod.LOGGER.debug("{}Текущие эффекты игрока {}: {}",
+                LOG_PREFIX, playerName, EffectType.toIds(currentMask));
+
+        // Добавляем только новые эффекты
+        long addedMask = cardMask & ~currentMask;
+        long newMask = currentMask | cardMask;
+        state.setEffectMask(newMask);
+
+        for (long m = addedMask; m != 0; m &= m - 1) {
+            EffectType type = EffectType.byOrdinal(Long.numberOfTrailingZeros(m));
+            EventMod.LOGGER.info("{}  Добавлен эффект: {} для игрока {}",
+                    LOG_PREFIX, type.getId(), playerName);
+            applyEffect(player, type, playerClass);
         }
 
         EventMod.LOGGER.info("{}Всего эффектов для игрока {}: {} (добавлено: {})",
-                LOG_PREFIX, playerName, playerEffects.size(), addedCount);
+                LOG_PREFIX, playerName, Long.bitCount(newMask), Long.bitCount(addedMask));
     }
 
     /**
-     * Применяет эффект по его ID.
+     * Применяет эффект.
      * @param player игрок
-     * @param effectId ID эффекта
+     * @param type тип эффекта
      * @param playerClass класс игрока
      */
-    private void applyEffectById(ServerPlayerEntity player, String effectId, PlayerClass playerClass) {
+    private void applyEffect(ServerPlayerEntity player, EffectType type, PlayerClass playerClass) {
         String playerName = player.getName().getString();
 
         try {
             EventMod.LOGGER.info("{}  Применение эффекта: {} для игрока {}",
-                    LOG_PREFIX, effectId, playerName);
+                    LOG_PREFIX, type.getId(), playerName);
 
-            switch (effectId) {
-                case "extra_health_8":
-                    updateHealthModifier(player, 8.0);
+            switch (type) {
+                case EXTRA_HEALTH_8:
+                    updateHealthModifier(player, CardRegistry.getEffectValue(EffectType.EXTRA_HEALTH_8));
                     break;
-                case "tank_slowness":
-                    EventMod.LOGGER.info("{}    Активировано замедление танка (-30%)", LOG_PREFIX);
+                case TANK_SLOWNESS:
+                    new TankSlownessEffect().apply(player);
                     break;
-                case "fall_damage_reduction":
+                case FALL_DAMAGE_REDUCTION:
                     EventMod.LOGGER.info("{}    Активировано снижение урона от падения", LOG_PREFIX);
                     break;
-                case "shield_knockback":
+                case SHIELD_KNOCKBACK:
                     EventMod.LOGGER.info("{}    Активировано отталкивание щитом", LOG_PREFIX);
                     break;
-                case "hunger_drain":
+                case HUNGER_DRAIN:
                     EventMod.LOGGER.info("{}    Активирован быстрый голод", LOG_PREFIX);
                     break;
-                case "assassin_strength":
+                case ASSASSIN_STRENGTH:
                     new AssassinCard1Effect().apply(player);
                     break;
-                case "reduced_health_4":
-                    updateHealthModifier(player, -4.0);
+                case REDUCED_HEALTH_4:
+                    updateHealthModifier(player, -CardRegistry.getEffectValue(EffectType.REDUCED_HEALTH_4));
                     break;
-                case "stealth_effect":
+                case STEALTH_EFFECT:
                     StealthEffect.apply(player);
                     break;
-                case "leather_armor_only":
+                case LEATHER_ARMOR_ONLY:
                     ArmorRestrictionEffect.apply(player);
                     break;
-                case "increased_speed":
+                case WEAPON_RESTRICTION:
+                    WeaponRestrictionEffect.apply(player);
+                    break;
+                case INCREASED_SPEED:
                     new IncreasedSpeedEffect().apply(player);
                     break;
-                case "fire_inventory_destruction":
+                case FIRE_INVENTORY_DESTRUCTION:
                     FireInventoryDestructionEffect.apply(player);
                     break;
-                default:
-                    EventMod.LOGGER.warn("{}    Неизвестный эффект: {}", LOG_PREFIX, effectId);
             }
 
             EventMod.LOGGER.debug("{}  Эффект {} успешно применен для игрока {}",
-                    LOG_PREFIX, effectId, playerName);
+                    LOG_PREFIX, type.getId(), playerName);
         } catch (Exception e) {
             EventMod.LOGGER.error("{}  Ошибка при применении эффекта {} для игрока {}: {}",
-                    LOG_PREFIX, effectId, playerName, e.getMessage(), e);
+                    LOG_PREFIX, type.getId(), playerName, e.getMessage(), e);
         }
     }
 
@@ -153,18 +130,18 @@ public class PlayerEffectManager {
      * @param amount изменение здоровья (положительное или отрицательное)
      */
     private void updateHealthModifier(ServerPlayerEntity player, double amount) {
-        UUID uuid = player.getUuid();
+        PlayerState state = PlayerState.of(player);
         String playerName = player.getName().getString();
 
         // Получаем текущий модификатор
-        Double currentMod = healthModifiers.getOrDefault(uuid, 0.0);
+        Double currentMod = state.getHealthModifier() != null ? state.getHealthModifier() : 0.0;
         Double newMod = currentMod + amount;
 
         EventMod.LOGGER.info("{}Обновление модификатора здоровья для игрока {}: {} + {} = {}",
                 LOG_PREFIX, playerName, currentMod, amount, newMod);
 
         // Сохраняем новое значение
-        healthModifiers.put(uuid, newMod);
+        state.setHealthModifier(newMod);
 
         // Применяем суммарный модификатор
         applyHealthModifier(player, newMod);
@@ -215,104 +192,128 @@ public class PlayerEffectManager {
 
     /**
      * Восстанавливает эффекты после смерти игрока.
-     * @param player игрок
-     * @param deathData данные смерти
+     * Состояние уже перенесено на новую сущность, поэтому заново применяются
+     * только модификаторы атрибутов и эффекты, живущие в самой сущности.
+     * @param player возрожденный игрок
      */
-    public void restoreEffects(ServerPlayerEntity player, PlayerDeathCacheManager.DeathData deathData) {
-        UUID uuid = player.getUuid();
+    public void restoreEffects(ServerPlayerEntity player) {
+        PlayerState state = PlayerState.of(player);
         String playerName = player.getName().getString();
 
         EventMod.LOGGER.info("{}Восстановление эффектов для игрока {} после смерти",
                 LOG_PREFIX, playerName);
 
-        // Очищаем текущие эффекты перед восстановлением
-        int removedCount = activeEffects.containsKey(uuid) ? activeEffects.get(uuid).size() : 0;
-        activeEffects.remove(uuid);
         resetHealthModifier(player);
 
         // Восстанавливаем модификатор здоровья
-        if (deathData.healthModifier() != null) {
-            healthModifiers.put(uuid, deathData.healthModifier());
+        Double healthModifier = state.getHealthModifier();
+        if (healthModifier != null) {
             EventMod.LOGGER.info("{}Восстановлен модификатор здоровья: +{} HP",
-                    LOG_PREFIX, deathData.healthModifier());
-            applyHealthModifier(player, deathData.healthModifier());
+                    LOG_PREFIX, healthModifier);
+            applyHealthModifier(player, healthModifier);
         }
 
         // Восстанавливаем активные эффекты
-        if (!deathData.activeEffects().isEmpty()) {
-            Set<String> effects = new HashSet<>(deathData.activeEffects());
-            activeEffects.put(uuid, effects);
-
-            EventMod.LOGGER.info("{}Восстановлено эффектов: {} (удалено: {})",
-                    LOG_PREFIX, effects.size(), removedCount);
-            EventMod.LOGGER.debug("{}Восстановленные эффекты: {}", LOG_PREFIX, effects);
+        long effectMask = state.getEffectMask();
+        if (effectMask != 0) {
+            EventMod.LOGGER.info("{}Восстановлено эффектов: {}", LOG_PREFIX, Long.bitCount(effectMask));
+            EventMod.LOGGER.debug("{}Восстановленные эффекты: {}", LOG_PREFIX, EffectType.toIds(effectMask));
 
             // Применяем эффекты (кроме health, который уже применен)
-            int appliedCount = 0;
-            for (String effectId : effects) {
-                if (!effectId.equals("extra_health_8") && !effectId.equals("reduced_health_4")) {
-                    applyRestoredEffectById(player, effectId, deathData.playerClass());
-                    appliedCount++;
-                }
+            long restoreMask = effectMask & ~HEALTH_EFFECTS_MASK;
+            for (long m = restoreMask; m != 0; m &= m - 1) {
+                applyRestoredEffect(player, EffectType.byOrdinal(Long.numberOfTrailingZeros(m)),
+                        state.getPlayerClass());
             }
 
-            EventMod.LOGGER.debug("{}Применено восстановленных эффектов: {}", LOG_PREFIX, appliedCount);
+            EventMod.LOGGER.debug("{}Применено восстановленных эффектов: {}",
+                    LOG_PREFIX, Long.bitCount(restoreMask));
         } else {
             EventMod.LOGGER.debug("{}Нет эффектов для восстановления", LOG_PREFIX);
         }
     }
 
+    /**
+     * Заново применяет эффекты, значения которых зашиты в модификаторы атрибутов.
+     * Вызывается после перезагрузки карточек: без этого замедление и модификатор
+     * здоровья сохраняли бы значения, прочитанные при получении карточки.
+     * @param player игрок
+     */
+    public void refreshParameterEffects(ServerPlayerEntity player) {
+        PlayerState state = PlayerState.of(player);
+        long effectMask = state.getEffectMask();
+
+        if (EffectType.TANK_SLOWNESS.isIn(effectMask)) {
+            new TankSlownessEffect().apply(player);
+        }
+
+        if ((effectMask & HEALTH_EFFECTS_MASK) != 0) {
+            double total = 0.0;
+            if (EffectType.EXTRA_HEALTH_8.isIn(effectMask)) {
+                total += CardRegistry.getEffectValue(EffectType.EXTRA_HEALTH_8);
+            }
+            if (EffectType.REDUCED_HEALTH_4.isIn(effectMask)) {
+                total -= CardRegistry.getEffectValue(EffectType.REDUCED_HEALTH_4);
+            }
+            state.setHealthModifier(total);
+            applyHealthModifier(player, total);
+        }
+    }
+
     /**
      * Применяет восстановленный эффект после смерти.
      * @param player игрок
-     * @param effectId ID эффекта
+     * @param type тип эффекта
      * @param playerClass класс игрока
      */
-    private void applyRestoredEffectById(ServerPlayerEntity player, String effectId, PlayerClass playerClass) {
+    private void applyRestoredEffect(ServerPlayerEntity player, EffectType type, PlayerClass playerClass) {
         String playerName = player.getName().getString();
 
         try {
             EventMod.LOGGER.debug("{}  Восстановление эффекта: {} для игрока {}",
-                    LOG_PREFIX, effectId, playerName);
+                    LOG_PREFIX, type.getId(), playerName);
 
-            switch (effectId) {
-                case "tank_slowness":
-                    EventMod.LOGGER.debug("{}    Восстановлено замедление танка (-30%)", LOG_PREFIX);
+            switch (type) {
+                case TANK_SLOWNESS:
+                    new TankSlownessEffect().apply(player);
                     break;
-                case "fall_damage_reduction":
+                case FALL_DAMAGE_REDUCTION:
                     EventMod.LOGGER.debug("{}    Восстановлено снижение урона от падения", LOG_PREFIX);
                     break;
-                case "shield_knockback":
+                case SHIELD_KNOCKBACK:
                     EventMod.LOGGER.debug("{}    Восстановлено отталкивание щитом", LOG_PREFIX);
                     break;
-                case "hunger_drain":
+                case HUNGER_DRAIN:
                     EventMod.LOGGER.debug("{}    Восстановлен быстрый голод", LOG_PREFIX);
                     break;
-                case "assassin_strength":
+                case ASSASSIN_STRENGTH:
                     new AssassinCard1Effect().apply(player);
                     break;
-                case "stealth_effect":
+                case STEALTH_EFFECT:
                     StealthEffect.apply(player);
                     break;
-                case "leather_armor_only":
+                case LEATHER_ARMOR_ONLY:
                     ArmorRestrictionEffect.apply(player);
                     break;
-                case "increased_speed":
+                case WEAPON_RESTRICTION:
+                    WeaponRestrictionEffect.apply(player);
+                    break;
+                case INCREASED_SPEED:
                     new IncreasedSpeedEffect().apply(player);
                     break;
-                case "fire_inventory_destruction":
+                case FIRE_INVENTORY_DESTRUCTION:
                     FireInventoryDestructionEffect.apply(player);
                     break;
                 default:
-                    EventMod.LOGGER.warn("{}    Неизвестный эффект при восстановлении: {}",
-                            LOG_PREFIX, effectId);
+                    EventMod.LOGGER.warn("{}    Эффект {} не восстанавливается отдельно",
+                            LOG_PREFIX, type.getId());
             }
 
             EventMod.LOGGER.trace("{}  Эффект {} восстановлен для игрока {}",
-                    LOG_PREFIX, effectId, playerName);
+                    LOG_PREFIX, type.getId(), playerName);
         } catch (Exception e) {
             EventMod.LOGGER.error("{}  Ошибка при восстановлении эффекта {} для игрока {}: {}",
-                    LOG_PREFIX, effectId, playerName, e.getMessage(), e);
+                    LOG_PREFIX, type.getId(), playerName, e.getMessage(), e);
         }
     }
 
@@ -321,35 +322,29 @@ public class PlayerEffectManager {
      * @param player игрок
      */
     public void resetAllEffects(ServerPlayerEntity player) {
-        UUID uuid = player.getUuid();
+        PlayerState state = PlayerState.of(player);
         String playerName = player.getName().getString();
 
         EventMod.LOGGER.info("{}Сброс всех эффектов для игрока {}", LOG_PREFIX, playerName);
 
         // Логируем текущие эффекты перед очисткой
-        Set<String> currentEffects = activeEffects.getOrDefault(uuid, new HashSet<>());
+        long currentMask = state.getEffectMask();
         EventMod.LOGGER.debug("{}  Текущие эффекты перед сбросом: {} (количество: {})",
-                LOG_PREFIX, currentEffects, currentEffects.size());
+                LOG_PREFIX, EffectType.toIds(currentMask), Long.bitCount(currentMask));
 
         // Очищаем эффекты
-        activeEffects.remove(uuid);
-
-        // Логируем эффекты после очистки
-        Set<String> afterEffects = activeEffects.getOrDefault(uuid, new HashSet<>());
-        EventMod.LOGGER.debug("{}  Эффекты после сброса: {} (количество: {})",
-                LOG_PREFIX, afterEffects, afterEffects.size());
+        state.setEffectMask(0L);
 
         // Сбрасываем модификатор здоровья
-        healthModifiers.remove(uuid);
+        state.setHealthModifier(null);
         resetHealthModifier(player);
 
         // Очищаем статус-эффекты
         player.clearStatusEffects();
 
-        // Снимаем эффект ограничения брони (если есть)
-        if (currentEffects.contains("leather_armor_only")) {
-            ArmorRestrictionEffect.remove(player);
-        }
+        // Снимаем эффекты, живущие вне маски (модификаторы атрибутов, ограничения)
+        removeEntityEffects(player, currentMask);
+        PlayerLifecycleRegistry.releaseEffects(player);
 
         EventMod.LOGGER.info("{}  Все эффекты сброшены для игрока {}", LOG_PREFIX, playerName);
     }
@@ -359,27 +354,43 @@ public class PlayerEffectManager {
      * @param player игрок
      */
     public void clearAllCardEffects(ServerPlayerEntity player) {
-        UUID uuid = player.getUuid();
+        PlayerState state = PlayerState.of(player);
         String playerName = player.getName().getString();
 
         EventMod.LOGGER.info("{}Очистка всех эффектов карточек для игрока {}", LOG_PREFIX, playerName);
 
-        // Снимаем эффект ограничения брони (если есть)
-        Set<String> effects = activeEffects.getOrDefault(uuid, new HashSet<>());
-        if (effects.contains("leather_armor_only")) {
-            ArmorRestrictionEffect.remove(player);
-        }
+        // Снимаем эффекты, живущие вне маски (модификаторы атрибутов, ограничения)
+        long effectMask = state.getEffectMask();
+        removeEntityEffects(player, effectMask);
 
-        int effectCount = effects.size();
-        activeEffects.remove(uuid);
-        healthModifiers.remove(uuid);
+        int effectCount = Long.bitCount(effectMask);
+        state.setEffectMask(0L);
+        state.setHealthModifier(null);
 
         resetHealthModifier(player);
         player.clearStatusEffects();
+        PlayerLifecycleRegistry.releaseEffects(player);
 
         EventMod.LOGGER.debug("{}  Удалено эффектов: {}", LOG_PREFIX, effectCount);
     }
 
+    /**
+     * Снимает эффекты, которые хранятся в самой сущности игрока, а не в маске.
+     * @param player игрок
+     * @param effectMask маска снимаемых эффектов
+     */
+    private void removeEntityEffects(ServerPlayerEntity player, long effectMask) {
+        if (EffectType.TANK_SLOWNESS.isIn(effectMask)) {
+            TankSlownessEffect.remove(player);
+        }
+        if (EffectType.LEATHER_ARMOR_ONLY.isIn(effectMask)) {
+            ArmorRestrictionEffect.remove(player);
+        }
+        if (EffectType.WEAPON_RESTRICTION.isIn(effectMask)) {
+            WeaponRestrictionEffect.remove(player);
+        }
+    }
+
     /**
      * Сбрасывает модификатор здоровья игрока.
      * @param player игрок
@@ -401,92 +412,83 @@ public class PlayerEffectManager {
 
     // === Геттеры ===
 
+    /**
+     * Получает маску активных эффектов игрока.
+     * @param player игрок
+     * @return маска эффектов (0 если эффектов нет)
+     */
+    public long getEffectMask(ServerPlayerEntity player) {
+        PlayerState state = PlayerState.peek(player);
+        return state != null ? state.getEffectMask() : 0L;
+    }
+
     /**
      * Получает все активные эффекты игрока.
-     * @param uuid UUID игрока
+     * @param player игрок
      * @return множество ID эффектов
      */
-    public Set<String> getAllActiveEffects(UUID uuid) {
-        Set<String> effects = activeEffects.getOrDefault(uuid, new HashSet<>());
-        EventMod.LOGGER.trace("{}Получение всех эффектов для UUID {}: {}",
-                LOG_PREFIX, uuid, effects.size());
+    public Set<String> getAllActiveEffects(ServerPlayerEntity player) {
+        Set<String> effects = EffectType.toIds(getEffectMask(player));
+        EventMod.LOGGER.trace("{}Получение всех эффектов для игрока {}: {}",
+                LOG_PREFIX, player.getName().getString(), effects.size());
         return effects;
     }
 
     /**
-     * Получает активные эффекты игрока.
-     * @param uuid UUID игрока
-     * @return множество ID эффектов
+     * Проверяет наличие эффекта у игрока.
+     * Вызывается из горячих путей (миксинов), поэтому не логирует.
+     * @param player игрок
+     * @param type тип эффекта
+     * @return true если эффект активен
      */
-    public Set<String> getActiveEffects(UUID uuid) {
-        return activeEffects.getOrDefault(uuid, new HashSet<>());
+    public boolean hasEffect(ServerPlayerEntity player, EffectType type) {
+        return type.isIn(getEffectMask(player));
     }
 
     /**
      * Проверяет наличие эффекта у игрока.
-     * @param uuid UUID игрока
+     * @param player игрок
      * @param effectId ID эффекта
      * @return true если эффект активен
      */
-    public boolean hasEffect(UUID uuid, String effectId) {
-        Set<String> effects = activeEffects.get(uuid);
-        boolean hasEffect = effects != null && effects.contains(effectId);
-        EventMod.LOGGER.trace("{}Проверка эффекта {} для UUID {}: {}",
-                LOG_PREFIX, effectId, uuid, hasEffect);
+    public boolean hasEffect(ServerPlayerEntity player, String effectId) {
+        EffectType type = EffectType.fromId(effectId);
+        boolean hasEffect = type != null && hasEffect(player, type);
+        EventMod.LOGGER.trace("{}Проверка эффекта {} для игрока {}: {}",
+                LOG_PREFIX, effectId, player.getName().getString(), hasEffect);
         return hasEffect;
     }
 
     /**
      * Получает модификатор здоровья игрока.
-     * @param uuid UUID игрока
+     * @param player игрок
      * @return модификатор здоровья или null
      */
-    public Double getHealthModifier(UUID uuid) {
-        return healthModifiers.get(uuid);
+    public Double getHealthModifier(ServerPlayerEntity player) {
+        PlayerState state = PlayerState.peek(player);
+        return state != null ? state.getHealthModifier() : null;
     }
 
     /**
-     * Удаляет все эффекты игрока.
-     * @param uuid UUID игрока
+     * Удаляет все эффекты игрока при выходе с сервера.
+     * @param player игрок
      */
-    public void removePlayerEffects(UUID uuid) {
-        EventMod.LOGGER.info("{}Удаление всех эффектов для UUID {}", LOG_PREFIX, uuid);
-
-        // Снимаем эффект ограничения брони (если есть)
-        Set<String> effects = activeEffects.getOrDefault(uuid, new HashSet<>());
-        if (effects.contains("leather_armor_only")) {
-            ServerPlayerEntity player = findPlayerByUuid(uuid);
-            if (player != null) {
-                ArmorRestrictionEffect.remove(player);
-            }
+    public void removePlayerEffects(ServerPlayerEntity player) {
+        PlayerState state = PlayerState.peek(player);
+        if (state == null) {
+            return;
         }
 
-        int effectCount = effects.size();
-        activeEffects.remove(uuid);
-        healthModifiers.remove(uuid);
+        EventMod.LOGGER.info("{}Удаление всех эффектов для игрока {}",
+                LOG_PREFIX, player.getName().getString());
 
-        EventMod.LOGGER.debug("{}  Удалено эффектов: {}", LOG_PREFIX, effectCount);
-    }
+        // Снимаем эффекты, живущие вне маски (модификаторы атрибутов, ограничения)
+        long effectMask = state.getEffectMask();
+        removeEntityEffects(player, effectMask);
 
-    /**
-     * Находит игрока по UUID.
-     * @param uuid UUID игрока
-     * @return игрок или null если не найден
-     */
-    private ServerPlayerEntity findPlayerByUuid(UUID uuid) {
-        // Этот метод нужно реализовать через доступ к серверу
-        // В текущем контексте PlayerEffectManager нет доступа к серверу
-        EventMod.LOGGER.trace("{}Поиск игрока по UUID: {}", LOG_PREFIX, uuid);
-        return null;
-    }
+        state.setEffectMask(0L);
+        state.setHealthModifier(null);
 
-    /**
-     * Получает статистику по эффектам.
-     * @return строка со статистикой
-     */
-    public String getStats() {
-        return String.format("PlayerEffectManager Stats: ActivePlayers=%d, TotalEffects=%d",
-                activeEffects.size(),
-                activeEffects.values().stream().mapToInt(Set::size).sum());
+        EventMod.LOGGER.debug("{}  Удалено эффектов: {}", LOG_PREFIX, Long.bitCount(effectMask));
     }
-}
\ No newline at end of file
+}
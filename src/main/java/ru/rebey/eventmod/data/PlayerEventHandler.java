@@ -2,8 +2,7 @@ package ru.rebey.eventmod.data;
 
 import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import ru.rebey.eventmod.EventMod;
-
-import java.util.UUID;
+import ru.rebey.eventmod.playerlist.PlayerListSync;
 
 /**
  * Обработчик событий игрока.
@@ -21,12 +20,13 @@ public class PlayerEventHandler {
         ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
             try {
                 String playerName = handler.getPlayer().getName().getString();
-                UUID playerUuid = handler.getPlayer().getUuid();
 
                 EventMod.LOGGER.info("{}Игрок {} отключается. Очистка данных...",
                         LOG_PREFIX, playerName);
 
-                PlayerDataHandler.removePlayerData(playerUuid);
+                PlayerDataHandler.removePlayerData(handler.getPlayer());
+                PlayerLifecycleRegistry.releaseSession(handler.getPlayer());
+                PlayerSessionRegistry.release(handler.getPlayer());
 
                 EventMod.LOGGER.debug("{}Данные игрока {} очищены", LOG_PREFIX, playerName);
             } catch (Exception e) {
@@ -38,7 +38,10 @@ public class PlayerEventHandler {
         ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> {
             try {
                 String playerName = handler.getPlayer().getName().getString();
-                EventMod.LOGGER.info("{}Игрок {} присоединился к серверу", LOG_PREFIX, playerName);
+                int sessionIndex = PlayerSessionRegistry.acquire(handler.getPlayer());
+                PlayerListSync.onPlayerJoin(handler.getPlayer());
+                EventMod.LOGGER.info("{}Игрок {} присоединился к серверу (индекс сессии: {})",
+                        LOG_PREFIX, playerName, sessionIndex);
             } catch (Exception e) {
                 EventMod.LOGGER.error("{}Ошибка при обработке подключения игрока: {}",
                         LOG_PREFIX, e.getMessage(), e);
@@ -0,0 +1,178 @@
+package ru.rebey.eventmod.data;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.PlayerManager;
+import net.minecraft.server.network.ServerPlayerEntity;
+import ru.rebey.eventmod.EventMod;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Реестр хранилищ, привязанных к игроку.
+ * Каждое статическое хранилище с данными игроков (списки участников эффектов,
+ * очереди, кеши) регистрируется здесь, и одно отключение игрока или сброс его эффектов
+ * освобождает их все. В режиме отладки реестр периодически проверяет, не осталось ли
+ * в хранилищах записей игроков, которых уже нет на сервере.
+ * Методы нужно вызывать только из потока сервера.
+ */
+public final class PlayerLifecycleRegistry {
+    private static final String LOG_PREFIX = "[PlayerLifecycleRegistry] ";
+
+    // Интервал проверки хранилищ в режиме отладки (5 минут)
+    private static final long AUDIT_INTERVAL = 6000;
+
+    /**
+     * Когда хранилище освобождает данные игрока.
+     */
+    public enum Scope {
+        // При сбросе эффектов и при отключении
+        EFFECTS,
+        // Только при отключении
+        SESSION
+    }
+
+    /**
+     * Хранилище данных игроков.
+     */
+    public interface PlayerStore {
+        /**
+         * Получает имя хранилища (для логов).
+         * @return имя хранилища
+         */
+        String name();
+
+        /**
+         * Удаляет данные игрока.
+         * @param player игрок
+         */
+        void release(ServerPlayerEntity player);
+
+        /**
+         * Передает UUID всех игроков, данные которых хранятся.
+         * @param action получатель UUID
+         */
+        void forEachTracked(Consumer<UUID> action);
+    }
+
+    private record Registration(Scope scope, PlayerStore store) {}
+
+    private static final List<Registration> STORES = new ArrayList<>();
+
+    static {
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            if (server.getTicks() % AUDIT_INTERVAL == 0 && EventMod.LOGGER.isDebugEnabled()) {
+                audit(server);
+            }
+        });
+    }
+
+    private PlayerLifecycleRegistry() {
+    }
+
+    /**
+     * Регистрирует хранилище.
+     * @param scope когда освобождать данные игрока
+     * @param store хранилище
+     * @return то же хранилище
+     */
+    public static <T extends PlayerStore> T register(Scope scope, T store) {
+        STORES.add(new Registration(scope, store));
+        EventMod.LOGGER.debug("{}Зарегистрировано хранилище {} ({})", LOG_PREFIX, store.name(), scope);
+        return store;
+    }
+
+    /**
+     * Регистрирует коллекцию UUID (например, keySet карты) как хранилище.
+     * @param scope когда освобождать данные игрока
+     * @param name имя хранилища
+     * @param keys коллекция UUID игроков
+     */
+    public static void registerKeys(Scope scope, String name, Collection<UUID> keys) {
+        register(scope, new PlayerStore() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public void release(ServerPlayerEntity player) {
+                keys.remove(player.getUuid());
+            }
+
+            @Override
+            public void forEachTracked(Consumer<UUID> action) {
+                keys.forEach(action);
+            }
+        });
+    }
+
+    /**
+     * Освобождает данные игрока во всех хранилищах эффектов.
+     * @param player игрок
+     */
+    public static void releaseEffects(ServerPlayerEntity player) {
+        release(player, Scope.EFFECTS);
+    }
+
+    /**
+     * Освобождает данные отключающегося игрока во всех хранилищах.
+     * @param player игрок
+     */
+    public static void releaseSession(ServerPlayerEntity player) {
+        release(player, Scope.SESSION);
+    }
+
+    /**
+     * Освобождает данные игрока в хранилищах с областью не шире указанной.
+     * @param player игрок
+     * @param scope область освобождения
+     */
+    private static void release(ServerPlayerEntity player, Scope scope) {
+        for (int i = 0; i < STORES.size(); i++) {
+            Registration registration = STORES.get(i);
+            if (registration.scope().compareTo(scope) > 0) {
+                continue;
+            }
+            try {
+                registration.store().release(player);
+            } catch (Exception e) {
+                EventMod.LOGGER.error("{}Ошибка при очистке хранилища {} для игрока {}: {}",
+                        LOG_PREFIX, registration.store().name(), player.getName().getString(), e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Проверяет хранилища на записи игроков, которых нет на сервере.
+     * @param server экземпляр сервера Minecraft
+     * @return общее количество найденных записей
+     */
+    public static int audit(MinecraftServer server) {
+        PlayerManager playerManager = server.getPlayerManager();
+        int total = 0;
+
+        for (Registration registration : STORES) {
+            int[] stale = new int[1];
+            registration.store().forEachTracked(uuid -> {
+                if (playerManager.getPlayer(uuid) == null) {
+                    stale[0]++;
+                }
+            });
+
+            if (stale[0] > 0) {
+                EventMod.LOGGER.warn("{}Хранилище {} содержит {} записей отключившихся игроков",
+                        LOG_PREFIX, registration.store().name(), stale[0]);
+                total += stale[0];
+            }
+        }
+
+        EventMod.LOGGER.debug("{}Проверено хранилищ: {}, записей отключившихся игроков: {}",
+                LOG_PREFIX, STORES.size(), total);
+        return total;
+    }
+}
@@ -0,0 +1,117 @@
+package ru.rebey.eventmod.data;
+
+import net.minecraft.server.network.ServerPlayerEntity;
+import ru.rebey.eventmod.EventMod;
+
+import java.util.Arrays;
+
+/**
+ * Реестр игровых сессий.
+ * Выдает каждому подключенному игроку плотный индекс (0, 1, 2, ...), по которому
+ * примитивные таблицы мода адресуют игрока без UUID, строк и упаковки.
+ * Индекс хранится в состоянии игрока и освобождается при отключении для повторного использования.
+ * Пока индекс выдан, горячие поля состояния игрока лежат в PlayerStateTable.
+ * Методы нужно вызывать только из потока сервера.
+ */
+public final class PlayerSessionRegistry {
+    private static final String LOG_PREFIX = "[PlayerSessionRegistry] ";
+
+    // Значение "индекс не выдан"
+    public static final int NO_INDEX = -1;
+
+    // Стек освобожденных индексов
+    private static int[] freeIndices = new int[16];
+    private static int freeCount;
+
+    // Количество когда-либо выданных индексов (все индексы меньше этого значения)
+    private static int highWater;
+    private static int activeCount;
+
+    private PlayerSessionRegistry() {
+    }
+
+    /**
+     * Выдает игроку индекс сессии, если он еще не выдан.
+     * @param player игрок
+     * @return индекс сессии
+     */
+    public static int acquire(ServerPlayerEntity player) {
+        PlayerState state = PlayerState.of(player);
+        int index = state.getSessionIndex();
+        if (index != NO_INDEX) {
+            return index;
+        }
+
+        index = freeCount > 0 ? freeIndices[--freeCount] : highWater++;
+        state.attach(index);
+        activeCount++;
+
+        EventMod.LOGGER.debug("{}Игроку {} выдан индекс сессии {} (активных: {})",
+                LOG_PREFIX, player.getName().getString(), index, activeCount);
+        return index;
+    }
+
+    /**
+     * Получает индекс сессии игрока, выдавая его при первом обращении.
+     * @param player игрок
+     * @return индекс сессии
+     */
+    public static int indexOf(ServerPlayerEntity player) {
+        PlayerState state = PlayerState.peek(player);
+        if (state != null && state.getSessionIndex() != NO_INDEX) {
+            return state.getSessionIndex();
+        }
+        return acquire(player);
+    }
+
+    /**
+     * Освобождает индекс сессии игрока.
+     * @param player отключающийся игрок
+     * @return освобожденный индекс или NO_INDEX если индекс не был выдан
+     */
+    public static int release(ServerPlayerEntity player) {
+        PlayerState state = PlayerState.peek(player);
+        if (state == null || state.getSessionIndex() == NO_INDEX) {
+            return NO_INDEX;
+        }
+
+        int index = state.getSessionIndex();
+        state.detach();
+
+        if (freeCount == freeIndices.length) {
+            freeIndices = Arrays.copyOf(freeIndices, freeCount * 2);
+        }
+        freeIndices[freeCount++] = index;
+        activeCount--;
+
+        EventMod.LOGGER.debug("{}Освобожден индекс сессии {} игрока {} (активных: {})",
+                LOG_PREFIX, index, player.getName().getString(), activeCount);
+        return index;
+    }
+
+    /**
+     * Получает верхнюю границу выданных индексов.
+     * Все индексы сессий лежат в диапазоне [0, highWater).
+     * @return верхняя граница индексов
+     */
+    public static int getHighWater() {
+        return highWater;
+    }
+
+    /**
+     * Получает количество активных сессий.
+     * @return количество игроков с выданным индексом
+     */
+    public static int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * Получает статистику реестра.
+     * @return строка со статистикой
+     */
+    public static String getStats() {
+        return String.format("PlayerSessionRegistry Stats: Active=%d, HighWater=%d, Free=%d",
+                activeCount, highWater, freeCount);
+    }
+}
@@ -0,0 +1,420 @@
+package ru.rebey.eventmod.data;
+
+import net.minecraft.server.network.ServerPlayerEntity;
+import ru.rebey.eventmod.EventMod;
+import ru.rebey.eventmod.effect.AttackModifiers;
+import ru.rebey.eventmod.effect.PinnedEffects;
+import ru.rebey.eventmod.effect.TickTimingWheel;
+import ru.rebey.eventmod.team.PlayerTeam;
+
+/**
+ * Состояние мода для одного игрока.
+ * Хранится прямо в ServerPlayerEntity (см. PlayerStateMixin), поэтому класс, команда,
+ * карточка и эффекты доступны одним чтением поля вместо поиска по UUID в отдельных картах.
+ * При возрождении и возвращении из Энда состояние переносится на новую сущность игрока.
+ * Горячие поля (класс, команда, эффекты, модификатор здоровья, тиковые отметки) на время
+ * сессии хранятся в PlayerStateTable по индексу сессии; поля этого объекта используются
+ * только пока индекс не выдан.
+ */
+public final class PlayerState {
+    private static final String LOG_PREFIX = "[PlayerState] ";
+
+    // Значение "нет отметки" для тиковых полей
+    public static final long NO_TICK = -1L;
+
+    // Индекс сессии (см. PlayerSessionRegistry), переживает возрождение вместе с состоянием
+    private int sessionIndex = PlayerSessionRegistry.NO_INDEX;
+
+    // === Основные данные ===
+    // Горячие поля до выдачи индекса сессии (далее - в PlayerStateTable)
+    private PlayerClass playerClass;
+    private PlayerTeam team = PlayerTeam.NONE;
+    private long effectMask;
+    // Модификаторы атаки, собранные по маске эффектов (см. AttackModifiers)
+    private int attackModifiers;
+    private Double healthModifier;
+
+    private String activeCard;
+    private long cardHistory;
+
+    // === Скрытность (StealthEffect) ===
+    private long sneakStartTick = NO_TICK;
+    private boolean stealthed;
+
+    // === Состояние движения (MovementTracker) ===
+    private byte movementFlags;
+    private long movementTick = NO_TICK;
+
+    // === Уничтожение инвентаря огнем (FireInventoryDestructionEffect) ===
+    private long fireDestructionTick = NO_TICK;
+
+    // === Закрепленные эффекты (PinnedEffects) ===
+    private PinnedEffects.Pin[] pinnedEffects = new PinnedEffects.Pin[0];
+    private TickTimingWheel.Timeout pinRenewal;
+
+    // === Невидимость при неподвижности (InvisibilityOnStillEffect) ===
+    private long lastMoveTick;
+    private boolean stillInvisible;
+
+    // === Экстренная регенерация (EmergencyRegenEffect) ===
+    private boolean regenTriggered;
+    private TickTimingWheel.Timeout hungerTimer;
+
+    /**
+     * Получает состояние игрока, создавая его при первом обращении.
+     * @param player игрок
+     * @return состояние игрока
+     */
+    public static PlayerState of(ServerPlayerEntity player) {
+        return ((PlayerStateHolder) player).eventmod$getState();
+    }
+
+    /**
+     * Получает состояние игрока без создания.
+     * Подходит для горячих путей, где отсутствие состояния означает отсутствие эффектов.
+     * @param player игрок
+     * @return состояние игрока или null
+     */
+    public static PlayerState peek(ServerPlayerEntity player) {
+        return ((PlayerStateHolder) player).eventmod$peekState();
+    }
+
+    /**
+     * Переносит состояние со старой сущности игрока на новую.
+     * @param oldPlayer старая сущность игрока
+     * @param newPlayer новая сущность игрока
+     */
+    public static void transfer(ServerPlayerEntity oldPlayer, ServerPlayerEntity newPlayer) {
+        PlayerState state = peek(oldPlayer);
+        if (state != null) {
+            ((PlayerStateHolder) newPlayer).eventmod$setState(state);
+            EventMod.LOGGER.debug("{}Состояние игрока {} перенесено на новую сущность",
+                    LOG_PREFIX, newPlayer.getName().getString());
+        }
+    }
+
+    /**
+     * Сбрасывает все данные состояния.
+     * Индекс сессии не сбрасывается: им управляет PlayerSessionRegistry.
+     */
+    public void clear() {
+        setPlayerClass(null);
+        setTeam(PlayerTeam.NONE);
+        activeCard = null;
+        cardHistory = 0L;
+        setEffectMask(0L);
+        setHealthModifier(null);
+        setSneakStartTick(NO_TICK);
+        stealthed = false;
+        setLastMoveTick(0L);
+        setMovement((byte) 0, NO_TICK);
+        stillInvisible = false;
+        pinnedEffects = new PinnedEffects.Pin[0];
+        fireDestructionTick = NO_TICK;
+        if (pinRenewal != null) {
+            pinRenewal.cancel();
+            pinRenewal = null;
+        }
+        regenTriggered = false;
+        if (hungerTimer != null) {
+            hungerTimer.cancel();
+            hungerTimer = null;
+        }
+    }
+
+    public int getSessionIndex() {
+        return sessionIndex;
+    }
+
+    /**
+     * Привязывает состояние к индексу сессии и переносит горячие поля в PlayerStateTable.
+     * @param index индекс сессии
+     */
+    void attach(int index) {
+        PlayerStateTable.ensureCapacity(index);
+        PlayerStateTable.classOrdinal[index] = PlayerStateTable.encodeClass(playerClass);
+        PlayerStateTable.teamOrdinal[index] = (byte) team.ordinal();
+        PlayerStateTable.effectMask[index] = effectMask;
+        PlayerStateTable.attackModifiers[index] = attackModifiers;
+        PlayerStateTable.healthModifier[index] = healthModifier != null ? healthModifier : Double.NaN;
+        PlayerStateTable.sneakStartTick[index] = sneakStartTick;
+        PlayerStateTable.lastMoveTick[index] = lastMoveTick;
+        PlayerStateTable.movementFlags[index] = movementFlags;
+        PlayerStateTable.movementTick[index] = movementTick;
+        sessionIndex = index;
+    }
+
+    /**
+     * Отвязывает состояние от индекса сессии, возвращая горячие поля в объект.
+     * После этого строка таблицы может быть выдана другому игроку.
+     */
+    void detach() {
+        int index = sessionIndex;
+        if (index == PlayerSessionRegistry.NO_INDEX) {
+            return;
+        }
+        playerClass = getPlayerClass();
+        team = getTeam();
+        effectMask = getEffectMask();
+        attackModifiers = getAttackModifiers();
+        healthModifier = getHealthModifier();
+        sneakStartTick = getSneakStartTick();
+        lastMoveTick = getLastMoveTick();
+        movementFlags = getMovementFlags();
+        movementTick = getMovementTick();
+        sessionIndex = PlayerSessionRegistry.NO_INDEX;
+    }
+
+    // === Основные данные ===
+
+    public PlayerClass getPlayerClass() {
+        int index = sessionIndex;
+        return index != PlayerSessionRegistry.NO_INDEX
+                ? PlayerStateTable.decodeClass(PlayerStateTable.classOrdinal[index])
+                : playerClass;
+    }
+
+    public void setPlayerClass(PlayerClass playerClass) {
+        int index = sessionIndex;
+        if (index != PlayerSessionRegistry.NO_INDEX) {
+            PlayerStateTable.classOrdinal[index] = PlayerStateTable.encodeClass(playerClass);
+        } else {
+            this.playerClass = playerClass;
+        }
+    }
+
+    public PlayerTeam getTeam() {
+        int index = sessionIndex;
+        return index != PlayerSessionRegistry.NO_INDEX
+                ? PlayerStateTable.decodeTeam(PlayerStateTable.teamOrdinal[index])
+                : team;
+    }
+
+    public void setTeam(PlayerTeam team) {
+        PlayerTeam value = team != null ? team : PlayerTeam.NONE;
+        int index = sessionIndex;
+        if (index != PlayerSessionRegistry.NO_INDEX) {
+            PlayerStateTable.teamOrdinal[index] = (byte) value.ordinal();
+        } else {
+            this.team = value;
+        }
+    }
+
+    public String getActiveCard() {
+        return activeCard;
+    }
+
+    public void setActiveCard(String activeCard) {
+        this.activeCard = activeCard;
+    }
+
+    /**
+     * Получает историю недавно предложенных карточек (см. CardSampler).
+     * @return упакованное кольцо номеров карточек
+     */
+    public long getCardHistory() {
+        return cardHistory;
+    }
+
+    public void setCardHistory(long cardHistory) {
+        this.cardHistory = cardHistory;
+    }
+
+    /**
+     * Получает модификаторы атаки игрока.
+     * @return маска модификаторов (см. AttackModifiers)
+     */
+    public int getAttackModifiers() {
+        int index = sessionIndex;
+        return index != PlayerSessionRegistry.NO_INDEX ? PlayerStateTable.attackModifiers[index] : attackModifiers;
+    }
+
+    public long getEffectMask() {
+        int index = sessionIndex;
+        return index != PlayerSessionRegistry.NO_INDEX ? PlayerStateTable.effectMask[index] : effectMask;
+    }
+
+    public void setEffectMask(long effectMask) {
+        int modifiers = AttackModifiers.compute(effectMask);
+        int index = sessionIndex;
+        if (index != PlayerSessionRegistry.NO_INDEX) {
+            PlayerStateTable.effectMask[index] = effectMask;
+            PlayerStateTable.attackModifiers[index] = modifiers;
+        } else {
+            this.effectMask = effectMask;
+            this.attackModifiers = modifiers;
+        }
+    }
+
+    public Double getHealthModifier() {
+        int index = sessionIndex;
+        if (index == PlayerSessionRegistry.NO_INDEX) {
+            return healthModifier;
+        }
+        double value = PlayerStateTable.healthModifier[index];
+        return Double.isNaN(value) ? null : value;
+    }
+
+    public void setHealthModifier(Double healthModifier) {
+        int index = sessionIndex;
+        if (index != PlayerSessionRegistry.NO_INDEX) {
+            PlayerStateTable.healthModifier[index] = healthModifier != null ? healthModifier : Double.NaN;
+        } else {
+            this.healthModifier = healthModifier;
+        }
+    }
+
+    // === Состояние движения ===
+
+    /**
+     * Получает флаги движения и переходы, вычисленные MovementTracker.
+     * @return флаги движения
+     */
+    public byte getMovementFlags() {
+        int index = sessionIndex;
+        return index != PlayerSessionRegistry.NO_INDEX ? PlayerStateTable.movementFlags[index] : movementFlags;
+    }
+
+    /**
+     * Получает тик, для которого вычислены флаги движения.
+     * @return тик сервера или NO_TICK
+     */
+    public long getMovementTick() {
+        int index = sessionIndex;
+        return index != PlayerSessionRegistry.NO_INDEX ? PlayerStateTable.movementTick[index] : movementTick;
+    }
+
+    /**
+     * Сохраняет флаги движения для тика.
+     * @param flags флаги движения
+     * @param tick тик сервера
+     */
+    public void setMovement(byte flags, long tick) {
+        int index = sessionIndex;
+        if (index != PlayerSessionRegistry.NO_INDEX) {
+            PlayerStateTable.movementFlags[index] = flags;
+            PlayerStateTable.movementTick[index] = tick;
+        } else {
+            this.movementFlags = flags;
+            this.movementTick = tick;
+        }
+    }
+
+    // === Скрытность ===
+
+    public long getSneakStartTick() {
+        int index = sessionIndex;
+        return index != PlayerSessionRegistry.NO_INDEX ? PlayerStateTable.sneakStartTick[index] : sneakStartTick;
+    }
+
+    public void setSneakStartTick(long sneakStartTick) {
+        int index = sessionIndex;
+        if (index != PlayerSessionRegistry.NO_INDEX) {
+            PlayerStateTable.sneakStartTick[index] = sneakStartTick;
+        } else {
+            this.sneakStartTick = sneakStartTick;
+        }
+    }
+
+    public boolean isStealthed() {
+        return stealthed;
+    }
+
+    public void setStealthed(boolean stealthed) {
+        this.stealthed = stealthed;
+    }
+
+    // === Уничтожение инвентаря огнем ===
+
+    public long getFireDestructionTick() {
+        return fireDestructionTick;
+    }
+
+    public void setFireDestructionTick(long fireDestructionTick) {
+        this.fireDestructionTick = fireDestructionTick;
+    }
+
+    // === Закрепленные эффекты ===
+
+    public PinnedEffects.Pin[] getPinnedEffects() {
+        return pinnedEffects;
+    }
+
+    public void setPinnedEffects(PinnedEffects.Pin[] pinnedEffects) {
+        this.pinnedEffects = pinnedEffects;
+    }
+
+    public TickTimingWheel.Timeout getPinRenewal() {
+        return pinRenewal;
+    }
+
+    public void setPinRenewal(TickTimingWheel.Timeout pinRenewal) {
+        this.pinRenewal = pinRenewal;
+    }
+
+    // === Невидимость при неподвижности ===
+
+    public long getLastMoveTick() {
+        int index = sessionIndex;
+        return index != PlayerSessionRegistry.NO_INDEX ? PlayerStateTable.lastMoveTick[index] : lastMoveTick;
+    }
+
+    public void setLastMoveTick(long lastMoveTick) {
+        int index = sessionIndex;
+        if (index != PlayerSessionRegistry.NO_INDEX) {
+            PlayerStateTable.lastMoveTick[index] = lastMoveTick;
+        } else {
+            this.lastMoveTick = lastMoveTick;
+        }
+    }
+
+    public boolean isStillInvisible() {
+        return stillInvisible;
+    }
+
+    public void setStillInvisible(boolean stillInvisible) {
+        this.stillInvisible = stillInvisible;
+    }
+
+    // === Экстренная регенерация ===
+
+    public boolean isRegenTriggered() {
+        return regenTriggered;
+    }
+
+    public void setRegenTriggered(boolean regenTriggered) {
+        this.regenTriggered = regenTriggered;
+    }
+
+    public TickTimingWheel.Timeout getHungerTimer() {
+        return hungerTimer;
+    }
+
+    public void setHungerTimer(TickTimingWheel.Timeout hungerTimer) {
+        this.hungerTimer = hungerTimer;
+    }
+
+    /**
+     * Проверяет, запланирован ли голод после экстренной регенерации.
+     * @return true если таймер голода ожидает срабатывания
+     */
+    public boolean isHungerScheduled() {
+        return hungerTimer != null && hungerTimer.isPending();
+    }
+
+    /**
+     * Отменяет запланированный голод.
+     * @return true если голод был запланирован
+     */
+    public boolean cancelHunger() {
+        TickTimingWheel.Timeout timer = hungerTimer;
+        hungerTimer = null;
+        return timer != null && timer.cancel();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PlayerState{class=%s, team=%s, card=%s, effects=%d, healthMod=%s}",
+                getPlayerClass(), getTeam(), activeCard, Long.bitCount(getEffectMask()), getHealthModifier());
+    }
+}
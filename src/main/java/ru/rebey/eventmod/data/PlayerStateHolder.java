@@ -0,0 +1,25 @@
+package ru.rebey.eventmod.data;
+
+/**
+ * Интерфейс доступа к состоянию мода, прикрепленному к игроку.
+ * Реализуется миксином PlayerStateMixin для ServerPlayerEntity.
+ */
+public interface PlayerStateHolder {
+    /**
+     * Получает состояние игрока, создавая его при первом обращении.
+     * @return состояние игрока
+     */
+    PlayerState eventmod$getState();
+
+    /**
+     * Получает состояние игрока без создания.
+     * @return состояние игрока или null если оно еще не создано
+     */
+    PlayerState eventmod$peekState();
+
+    /**
+     * Устанавливает состояние игрока.
+     * @param state новое состояние
+     */
+    void eventmod$setState(PlayerState state);
+}
@@ -0,0 +1,85 @@
+package ru.rebey.eventmod.data;
+
+import ru.rebey.eventmod.team.PlayerTeam;
+
+import java.util.Arrays;
+
+/**
+ * Таблица горячих полей состояния игроков в виде параллельных примитивных массивов.
+ * Строка таблицы - индекс сессии игрока (см. PlayerSessionRegistry), поэтому класс,
+ * команда, маска эффектов и тиковые отметки всех онлайн-игроков лежат подряд в памяти
+ * и читаются без упаковки и обхода объектов.
+ * Пока у состояния нет индекса сессии, эти поля хранятся в самом PlayerState;
+ * при выдаче индекса они переносятся в таблицу, при освобождении - обратно.
+ * Методы нужно вызывать только из потока сервера.
+ */
+final class PlayerStateTable {
+    // Значение "нет класса" в таблице классов
+    static final byte NO_CLASS = -1;
+
+    private static final PlayerClass[] CLASSES = PlayerClass.values();
+    private static final PlayerTeam[] TEAMS = PlayerTeam.values();
+
+    static byte[] classOrdinal = new byte[0];
+    static byte[] teamOrdinal = new byte[0];
+    static long[] effectMask = new long[0];
+    static int[] attackModifiers = new int[0];
+    // NaN означает отсутствие модификатора здоровья
+    static double[] healthModifier = new double[0];
+    static long[] sneakStartTick = new long[0];
+    static long[] lastMoveTick = new long[0];
+    // Состояние движения и переходы последнего тика (см. MovementTracker)
+    static byte[] movementFlags = new byte[0];
+    static long[] movementTick = new long[0];
+
+    private PlayerStateTable() {
+    }
+
+    /**
+     * Расширяет таблицу так, чтобы в ней была строка с указанным индексом.
+     * @param index индекс сессии
+     */
+    static void ensureCapacity(int index) {
+        if (index < classOrdinal.length) {
+            return;
+        }
+
+        int capacity = Math.max(16, Math.max(index + 1, classOrdinal.length * 2));
+        classOrdinal = Arrays.copyOf(classOrdinal, capacity);
+        teamOrdinal = Arrays.copyOf(teamOrdinal, capacity);
+        effectMask = Arrays.copyOf(effectMask, capacity);
+        attackModifiers = Arrays.copyOf(attackModifiers, capacity);
+        healthModifier = Arrays.copyOf(healthModifier, capacity);
+        sneakStartTick = Arrays.copyOf(sneakStartTick, capacity);
+        lastMoveTick = Arrays.copyOf(lastMoveTick, capacity);
+        movementFlags = Arrays.copyOf(movementFlags, capacity);
+        movementTick = Arrays.copyOf(movementTick, capacity);
+    }
+
+    /**
+     * Кодирует класс игрока для таблицы.
+     * @param playerClass класс игрока или null
+     * @return порядковый номер класса или NO_CLASS
+     */
+    static byte encodeClass(PlayerClass playerClass) {
+        return playerClass != null ? (byte) playerClass.ordinal() : NO_CLASS;
+    }
+
+    /**
+     * Декодирует класс игрока из таблицы.
+     * @param ordinal порядковый номер класса или NO_CLASS
+     * @return класс игрока или null
+     */
+    static PlayerClass decodeClass(byte ordinal) {
+        return ordinal != NO_CLASS ? CLASSES[ordinal] : null;
+    }
+
+    /**
+     * Декодирует команду игрока из таблицы.
+     * @param ordinal порядковый номер команды
+     * @return команда игрока
+     */
+    static PlayerTeam decodeTeam(byte ordinal) {
+        return TEAMS[ordinal];
+    }
+}
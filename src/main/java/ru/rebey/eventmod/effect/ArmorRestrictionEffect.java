@@ -1,262 +1,239 @@
 package ru.rebey.eventmod.effect;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
-import net.minecraft.item.*;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.component.DataComponentTypes;
+import net.minecraft.component.type.AttributeModifiersComponent;
+import net.minecraft.entity.EquipmentSlot;
+import net.minecraft.entity.attribute.EntityAttributeModifier;
+import net.minecraft.entity.attribute.EntityAttributes;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.registry.Registries;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 import ru.rebey.eventmod.EventMod;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 
 /**
  * Эффект ограничения брони.
  * Ограничивает игроков ношением только слабой брони (не сильнее кольчужной).
+ * Броня проверяется в момент надевания (см. EquipmentWatcher).
+ * Защита предметов берется из таблицы, построенной при запуске сервера по модификаторам
+ * атрибутов всех зарегистрированных предметов, включая модовые.
  */
 public class ArmorRestrictionEffect {
     private static final String LOG_PREFIX = "[ArmorRestrictionEffect] ";
 
-    private static final Set<UUID> AFFECTED_PLAYERS = new HashSet<>();
-    private static final int CHECK_INTERVAL = 20; // проверка каждую секунду (20 тиков)
+    // Защита брони по слотам: предмет -> 4 байта (по слоту на байт, в четвертях единицы).
+    // Предметы без защиты в таблицу не попадают и считаются разрешенными
+    private static final Reference2IntOpenHashMap<Item> ARMOR_TABLE = new Reference2IntOpenHashMap<>();
 
-    // Кэш для защиты брони по слотам
-    private static final Map<String, Float[]> ARMOR_DEFENSE_CACHE = new HashMap<>();
+    // Точность хранения защиты в таблице (1/4 единицы)
+    private static final float DEFENSE_SCALE = 4.0f;
+    private static final int DEFENSE_MAX = 0xFF;
 
     // Максимально разрешенная защита по слотам (как у кольчуги)
     private static final float[] MAX_ALLOWED_DEFENSE = {2.0f, 5.0f, 4.0f, 1.0f}; // шлем, нагрудник, штаны, ботинки
 
+    // Слоты брони в порядке индексов MAX_ALLOWED_DEFENSE
+    private static final EquipmentSlot[] ARMOR_SLOTS = {
+            EquipmentSlot.HEAD, EquipmentSlot.CHEST, EquipmentSlot.LEGS, EquipmentSlot.FEET
+    };
+
+    // Игроки с ограничением брони (проверяются при надевании брони)
+    private static final EquipmentWatcher.Watch WATCH = EquipmentWatcher.register(
+            "armor_restriction", EquipmentSlot.Type.HUMANOID_ARMOR, ArmorRestrictionEffect::checkArmorSlot);
+    private static final EffectMembers AFFECTED_PLAYERS = WATCH.members();
+
     static {
         EventMod.LOGGER.info("{}Инициализация эффекта ограничения брони", LOG_PREFIX);
+        ARMOR_TABLE.defaultReturnValue(0);
 
-        // Предварительно кэшируем ванильную броню
-        cacheVanillaArmor();
+        EventMod.LOGGER.debug("{}Эффект ограничения брони инициализирован. Проверка при надевании брони",
+                LOG_PREFIX);
+    }
 
-        // Регистрируем тиковый обработчик
-        ServerTickEvents.END_SERVER_TICK.register(server -> {
-            if (server.getTicks() % CHECK_INTERVAL != 0) return;
+    /**
+     * Регистрирует построение таблицы брони при запуске сервера.
+     */
+    public static void register() {
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> buildArmorTable());
+        EventMod.LOGGER.info("{}Таблица брони будет построена при запуске сервера", LOG_PREFIX);
+    }
+
+    /**
+     * Строит таблицу защиты для всех зарегистрированных предметов.
+     * Защита берется из модификаторов атрибутов предмета, поэтому модовая броня
+     * учитывается наравне с ванильной.
+     */
+    private static void buildArmorTable() {
+        ARMOR_TABLE.clear();
 
+        for (Item item : Registries.ITEM) {
             try {
-                int checkedPlayers = 0;
-                int removedItems = 0;
-
-                for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
-                    if (AFFECTED_PLAYERS.contains(player.getUuid())) {
-                        checkedPlayers++;
-                        removedItems += checkAndRemoveForbiddenArmor(player);
-                    }
+                int packed = packArmorDefense(item);
+                if (packed != 0) {
+                    ARMOR_TABLE.put(item, packed);
                 }
+            } catch (Exception e) {
+                EventMod.LOGGER.error("{}Ошибка при чтении защиты предмета {}: {}",
+                        LOG_PREFIX, Registries.ITEM.getId(item), e.getMessage(), e);
+            }
+        }
+
+        ARMOR_TABLE.trim();
+        EventMod.LOGGER.info("{}Таблица брони построена: {} предметов", LOG_PREFIX, ARMOR_TABLE.size());
+    }
+
+    /**
+     * Упаковывает защиту предмета по слотам брони.
+     * Модификаторы берутся так же, как при надевании: из компонента предмета,
+     * а если он пуст - из модификаторов по умолчанию самого предмета.
+     * @param item предмет
+     * @return упакованная защита (0 если предмет не дает защиты)
+     */
+    private static int packArmorDefense(Item item) {
+        AttributeModifiersComponent modifiers = item.getComponents()
+                .getOrDefault(DataComponentTypes.ATTRIBUTE_MODIFIERS, AttributeModifiersComponent.DEFAULT);
+        if (modifiers.modifiers().isEmpty()) {
+            modifiers = item.getAttributeModifiers();
+        }
 
-                if (checkedPlayers > 0) {
-                    EventMod.LOGGER.trace("{}Проверено игроков: {}, удалено предметов: {}",
-                            LOG_PREFIX, checkedPlayers, removedItems);
+        float[] defense = new float[ARMOR_SLOTS.length];
+        for (AttributeModifiersComponent.Entry entry : modifiers.modifiers()) {
+            if (!entry.attribute().equals(EntityAttributes.GENERIC_ARMOR)
+                    || entry.modifier().operation() != EntityAttributeModifier.Operation.ADD_VALUE) {
+                continue;
+            }
+            for (int i = 0; i < ARMOR_SLOTS.length; i++) {
+                if (entry.slot().matches(ARMOR_SLOTS[i])) {
+                    defense[i] += (float) entry.modifier().value();
                 }
-            } catch (Exception e) {
-                EventMod.LOGGER.error("{}Ошибка при проверке брони: {}", LOG_PREFIX, e.getMessage(), e);
             }
-        });
+        }
 
-        EventMod.LOGGER.debug("{}Эффект ограничения брони инициализирован. Проверка каждые {} тиков",
-                LOG_PREFIX, CHECK_INTERVAL);
+        int packed = 0;
+        for (int i = 0; i < ARMOR_SLOTS.length; i++) {
+            int value = Math.clamp(Math.round(defense[i] * DEFENSE_SCALE), 0, DEFENSE_MAX);
+            packed |= value << (i * 8);
+        }
+        return packed;
     }
 
     /**
-     * Кэширует защиту ванильной брони.
+     * Получает индекс слота брони.
+     * @param slot слот экипировки
+     * @return индекс (0-шлем, 1-нагрудник, 2-штаны, 3-ботинки) или -1 если это не слот брони
      */
-    private static void cacheVanillaArmor() {
-        EventMod.LOGGER.debug("{}Кэширование защиты ванильной брони", LOG_PREFIX);
-
-        // Кожа
-        cacheArmorDefense(Items.LEATHER_HELMET, 1.0f, 1.0f, 1.0f, 1.0f);
-        cacheArmorDefense(Items.LEATHER_CHESTPLATE, 3.0f, 3.0f, 3.0f, 3.0f);
-        cacheArmorDefense(Items.LEATHER_LEGGINGS, 2.0f, 2.0f, 2.0f, 2.0f);
-        cacheArmorDefense(Items.LEATHER_BOOTS, 1.0f, 1.0f, 1.0f, 1.0f);
-
-        // Золото
-        cacheArmorDefense(Items.GOLDEN_HELMET, 2.0f, 2.0f, 2.0f, 2.0f);
-        cacheArmorDefense(Items.GOLDEN_CHESTPLATE, 5.0f, 5.0f, 5.0f, 5.0f);
-        cacheArmorDefense(Items.GOLDEN_LEGGINGS, 3.0f, 3.0f, 3.0f, 3.0f);
-        cacheArmorDefense(Items.GOLDEN_BOOTS, 1.0f, 1.0f, 1.0f, 1.0f);
-
-        // Кольчуга
-        cacheArmorDefense(Items.CHAINMAIL_HELMET, 2.0f, 2.0f, 2.0f, 2.0f);
-        cacheArmorDefense(Items.CHAINMAIL_CHESTPLATE, 5.0f, 5.0f, 5.0f, 5.0f);
-        cacheArmorDefense(Items.CHAINMAIL_LEGGINGS, 4.0f, 4.0f, 4.0f, 4.0f);
-        cacheArmorDefense(Items.CHAINMAIL_BOOTS, 1.0f, 1.0f, 1.0f, 1.0f);
-
-        // Железо (запрещено)
-        cacheArmorDefense(Items.IRON_HELMET, 2.0f, 2.0f, 2.0f, 2.0f);
-        cacheArmorDefense(Items.IRON_CHESTPLATE, 6.0f, 6.0f, 6.0f, 6.0f);
-        cacheArmorDefense(Items.IRON_LEGGINGS, 5.0f, 5.0f, 5.0f, 5.0f);
-        cacheArmorDefense(Items.IRON_BOOTS, 2.0f, 2.0f, 2.0f, 2.0f);
-
-        // Алмаз (запрещено)
-        cacheArmorDefense(Items.DIAMOND_HELMET, 3.0f, 3.0f, 3.0f, 3.0f);
-        cacheArmorDefense(Items.DIAMOND_CHESTPLATE, 8.0f, 8.0f, 8.0f, 8.0f);
-        cacheArmorDefense(Items.DIAMOND_LEGGINGS, 6.0f, 6.0f, 6.0f, 6.0f);
-        cacheArmorDefense(Items.DIAMOND_BOOTS, 3.0f, 3.0f, 3.0f, 3.0f);
-
-        // Незерит (запрещено)
-        cacheArmorDefense(Items.NETHERITE_HELMET, 3.0f, 3.0f, 3.0f, 3.0f);
-        cacheArmorDefense(Items.NETHERITE_CHESTPLATE, 8.0f, 8.0f, 8.0f, 8.0f);
-        cacheArmorDefense(Items.NETHERITE_LEGGINGS, 6.0f, 6.0f, 6.0f, 6.0f);
-        cacheArmorDefense(Items.NETHERITE_BOOTS, 3.0f, 3.0f, 3.0f, 3.0f);
-
-        // Черепаший панцирь
-        cacheArmorDefense(Items.TURTLE_HELMET, 2.0f, 2.0f, 2.0f, 2.0f);
-
-        EventMod.LOGGER.debug("{}Закеширована защита для {} предметов брони",
-                LOG_PREFIX, ARMOR_DEFENSE_CACHE.size());
+    private static int armorIndex(EquipmentSlot slot) {
+        return switch (slot) {
+            case HEAD -> 0;
+            case CHEST -> 1;
+            case LEGS -> 2;
+            case FEET -> 3;
+            default -> -1;
+        };
     }
 
     /**
-     * Кэширует защиту брони.
-     * @param item предмет брони
-     * @param helmetDef защита шлема
-     * @param chestDef защита нагрудника
-     * @param legsDef защита штанов
-     * @param bootsDef защита ботинок
+     * Проверяет надетую броню и снимает ее, если она запрещена.
+     * @param player игрок для проверки
+     * @param slot слот брони
+     * @param stack новый предмет в слоте
      */
-    private static void cacheArmorDefense(Item item, float helmetDef, float chestDef,
-                                          float legsDef, float bootsDef) {
-        ARMOR_DEFENSE_CACHE.put(item.toString(), new Float[]{helmetDef, chestDef, legsDef, bootsDef});
-        EventMod.LOGGER.trace("{}Кэширована защита для {}: [{}, {}, {}, {}]",
-                LOG_PREFIX, item.getName().getString(), helmetDef, chestDef, legsDef, bootsDef);
+    private static void checkArmorSlot(ServerPlayerEntity player, EquipmentSlot slot, ItemStack stack) {
+        if (removeIfForbidden(player, slot, stack)) {
+            sendArmorWarning(player);
+        }
     }
 
     /**
-     * Проверяет и удаляет запрещенную броню у игрока.
+     * Проверяет все слоты брони и удаляет запрещенную броню у игрока.
+     * Используется при наложении эффекта, дальше слоты проверяются по событию.
      * @param player игрок для проверки
      * @return количество удаленных предметов
      */
     private static int checkAndRemoveForbiddenArmor(ServerPlayerEntity player) {
         int removedCount = 0;
-        var inv = player.getInventory();
-        String playerName = player.getName().getString();
 
-        for (int slot = 36; slot <= 39; slot++) { // слоты брони: 36-шлем, 37-нагрудник, 38-штаны, 39-ботинки
-            ItemStack stack = inv.getStack(slot);
-            if (!stack.isEmpty() && isForbiddenArmor(stack, slot - 36)) {
-                try {
-                    // Выбрасываем предмет
-                    player.dropItem(stack, true, true);
-                    inv.setStack(slot, ItemStack.EMPTY);
-                    removedCount++;
-
-                    EventMod.LOGGER.info("{}Удалена запрещенная броня у игрока {}: {} в слоте {}",
-                            LOG_PREFIX, playerName, stack.getItem().getName().getString(), slot - 36);
-
-                } catch (Exception e) {
-                    EventMod.LOGGER.error("{}Ошибка при удалении брони у игрока {}: {}",
-                            LOG_PREFIX, playerName, e.getMessage(), e);
-                }
+        for (EquipmentSlot slot : ARMOR_SLOTS) {
+            ItemStack stack = player.getEquippedStack(slot);
+            if (!stack.isEmpty() && removeIfForbidden(player, slot, stack)) {
+                removedCount++;
             }
         }
 
         if (removedCount > 0) {
-            player.sendMessage(
-                    Text.literal("❌ Запрещена броня сильнее кольчужной!").formatted(Formatting.RED),
-                    true
-            );
-            EventMod.LOGGER.debug("{}Игроку {} отправлено предупреждение об удалении брони",
-                    LOG_PREFIX, playerName);
+            sendArmorWarning(player);
         }
 
         return removedCount;
     }
 
     /**
-     * Проверяет, является ли броня запрещенной.
-     * @param stack предмет для проверки
-     * @param slotIndex индекс слота (0-шлем, 1-нагрудник, 2-штаны, 3-ботинки)
-     * @return true если броня запрещена
+     * Выбрасывает предмет из слота брони, если он запрещен.
+     * @param player игрок
+     * @param slot слот брони
+     * @param stack предмет в слоте
+     * @return true если предмет был удален
      */
-    private static boolean isForbiddenArmor(ItemStack stack, int slotIndex) {
-        if (!(stack.getItem() instanceof ArmorItem)) {
+    private static boolean removeIfForbidden(ServerPlayerEntity player, EquipmentSlot slot, ItemStack stack) {
+        int slotIndex = armorIndex(slot);
+        if (slotIndex < 0 || !isForbiddenArmor(stack, slotIndex)) {
             return false;
         }
 
-        float defense = getArmorDefense(stack.getItem(), slotIndex);
-        float maxAllowed = MAX_ALLOWED_DEFENSE[slotIndex];
-
-        EventMod.LOGGER.trace("{}Проверка брони: {} в слоте {}, защита: {}, максимум: {}",
-                LOG_PREFIX, stack.getItem().getName().getString(), slotIndex, defense, maxAllowed);
-
-        return defense > maxAllowed;
+        String playerName = player.getName().getString();
+        try {
+            // Выбрасываем предмет
+            player.dropItem(stack, true, true);
+            player.equipStack(slot, ItemStack.EMPTY);
+
+            EventMod.LOGGER.info("{}Удалена запрещенная броня у игрока {}: {} в слоте {}",
+                    LOG_PREFIX, playerName, stack.getItem().getName().getString(), slot.getName());
+            return true;
+        } catch (Exception e) {
+            EventMod.LOGGER.error("{}Ошибка при удалении брони у игрока {}: {}",
+                    LOG_PREFIX, playerName, e.getMessage(), e);
+            return false;
+        }
     }
 
     /**
-     * Получает защиту брони.
-     * @param item предмет брони
-     * @param slotIndex индекс слота
-     * @return значение защиты
+     * Отправляет игроку предупреждение об удалении брони.
+     * @param player игрок
      */
-    private static float getArmorDefense(Item item, int slotIndex) {
-        String itemKey = item.toString();
-
-        // Проверяем кэш
-        if (ARMOR_DEFENSE_CACHE.containsKey(itemKey)) {
-            return ARMOR_DEFENSE_CACHE.get(itemKey)[slotIndex];
-        }
-
-        // Для модовой брони вычисляем защиту
-        float defense = calculateModArmorDefense(item, slotIndex);
-
-        // Кэшируем результат
-        Float[] defenses = new Float[4];
-        for (int i = 0; i < 4; i++) {
-            defenses[i] = calculateModArmorDefense(item, i);
-        }
-        ARMOR_DEFENSE_CACHE.put(itemKey, defenses);
-
-        EventMod.LOGGER.debug("{}Кэширована защита модовой брони: {} -> {} в слоте {}",
-                LOG_PREFIX, item.getName().getString(), defense, slotIndex);
+    private static void sendArmorWarning(ServerPlayerEntity player) {
+        player.sendMessage(
+                Text.literal("❌ Запрещена броня сильнее кольчужной!").formatted(Formatting.RED),
+                true
+        );
+        EventMod.LOGGER.debug("{}Игроку {} отправлено предупреждение об удалении брони",
+                LOG_PREFIX, player.getName().getString());
+    }
 
-        return defense;
+    /**
+     * Проверяет, является ли броня запрещенной.
+     * @param stack предмет для проверки
+     * @param slotIndex индекс слота (0-шлем, 1-нагрудник, 2-штаны, 3-ботинки)
+     * @return true если броня запрещена
+     */
+    private static boolean isForbiddenArmor(ItemStack stack, int slotIndex) {
+        return getArmorDefense(stack.getItem(), slotIndex) > MAX_ALLOWED_DEFENSE[slotIndex];
     }
 
     /**
-     * Вычисляет защиту модовой брони.
+     * Получает защиту брони из таблицы.
      * @param item предмет брони
      * @param slotIndex индекс слота
-     * @return значение защиты
+     * @return значение защиты (0 для предметов без защиты)
      */
-    private static float calculateModArmorDefense(Item item, int slotIndex) {
-        if (item instanceof ArmorItem armorItem) {
-            try {
-                // В Minecraft 1.21 getMaterial() возвращает RegistryEntry<ArmorMaterial>
-                var materialEntry = armorItem.getMaterial();
-
-                // Получаем материал из RegistryEntry
-                if (materialEntry.hasKeyAndValue()) {
-                    ArmorMaterial material = materialEntry.value();
-
-                    // Определяем тип брони для слота
-                    ArmorItem.Type type = switch (slotIndex) {
-                        case 0 -> ArmorItem.Type.HELMET;
-                        case 1 -> ArmorItem.Type.CHESTPLATE;
-                        case 2 -> ArmorItem.Type.LEGGINGS;
-                        case 3 -> ArmorItem.Type.BOOTS;
-                        default -> ArmorItem.Type.BOOTS;
-                    };
-
-                    // Получаем защиту из материала
-                    int defenseValue = material.getProtection(type);
-
-                    EventMod.LOGGER.trace("{}Вычислена защита модовой брони: {} тип {} = {}",
-                            LOG_PREFIX, item.getName().getString(), type.getName(), defenseValue);
-
-                    return defenseValue;
-                }
-            } catch (Exception e) {
-                EventMod.LOGGER.error("{}Ошибка при вычислении защиты модовой брони {}: {}",
-                        LOG_PREFIX, item.getName().getString(), e.getMessage(), e);
-            }
-        }
-        return 0.0f;
+    private static float getArmorDefense(Item item, int slotIndex) {
+        int packed = ARMOR_TABLE.getInt(item);
+        return ((packed >>> (slotIndex * 8)) & DEFENSE_MAX) / DEFENSE_SCALE;
     }
 
     /**
@@ -0,0 +1,90 @@
+package ru.rebey.eventmod.effect;
+
+import net.minecraft.item.Items;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.math.Vec3d;
+import ru.rebey.eventmod.EventMod;
+import ru.rebey.eventmod.card.CardRegistry;
+import ru.rebey.eventmod.data.PlayerDataManager;
+
+/**
+ * Цепочка модификаторов атаки игрока.
+ * Набор модификаторов хранится в состоянии игрока битовой маской и пересчитывается
+ * только при изменении эффектов (см. PlayerState.setEffectMask), поэтому обработчик
+ * урона не проверяет эффекты по одному на каждом ударе.
+ * Модификаторы применяются в порядке объявления битов.
+ * Бонус по целям с полным здоровьем учитывает кулдаун пары (ассасин, цель),
+ * см. PlayerAssassinManager.
+ */
+public final class AttackModifiers {
+    private static final String LOG_PREFIX = "[AttackModifiers] ";
+
+    // Бонусный урон по целям с полным здоровьем (ASSASSIN_STRENGTH)
+    public static final int FULL_HEALTH_BONUS = 1;
+    // Отталкивание при атаке со щитом в руке (SHIELD_KNOCKBACK)
+    public static final int SHIELD_KNOCKBACK = 1 << 1;
+
+    // Вертикальный подброс при отталкивании щитом
+    private static final double SHIELD_KNOCKBACK_LIFT = 0.6;
+
+    private AttackModifiers() {
+    }
+
+    /**
+     * Собирает набор модификаторов атаки по маске эффектов.
+     * @param effectMask маска эффектов игрока
+     * @return маска модификаторов атаки
+     */
+    public static int compute(long effectMask) {
+        int modifiers = 0;
+        if (EffectType.ASSASSIN_STRENGTH.isIn(effectMask)) {
+            modifiers |= FULL_HEALTH_BONUS;
+        }
+        if (EffectType.SHIELD_KNOCKBACK.isIn(effectMask)) {
+            modifiers |= SHIELD_KNOCKBACK;
+        }
+        return modifiers;
+    }
+
+    /**
+     * Применяет цепочку модификаторов к атаке игрока по игроку.
+     * @param modifiers маска модификаторов атакующего
+     * @param attacker атакующий игрок
+     * @param target цель атаки
+     * @param amount исходный урон
+     * @return итоговый урон
+     */
+    public static float apply(int modifiers, ServerPlayerEntity attacker, ServerPlayerEntity target, float amount) {
+        if ((modifiers & FULL_HEALTH_BONUS) != 0 && target.getHealth() >= target.getMaxHealth()
+                && PlayerDataManager.shouldApplyAssassinBonus(attacker, target)) {
+            float modified = amount * (float) CardRegistry.getEffectValue(EffectType.ASSASSIN_STRENGTH);
+            if (EventMod.LOGGER.isDebugEnabled()) {
+                EventMod.LOGGER.debug("{}Атака по цели с полным HP: {} -> {} ({} -> {})",
+                        LOG_PREFIX, attacker.getName().getString(), target.getName().getString(), amount, modified);
+            }
+            amount = modified;
+        }
+
+        if ((modifiers & SHIELD_KNOCKBACK) != 0 && attacker.getStackInHand(attacker.getActiveHand()).isOf(Items.SHIELD)) {
+            applyShieldKnockback(attacker, target);
+        }
+
+        return amount;
+    }
+
+    /**
+     * Отбрасывает цель от атакующего.
+     * @param attacker атакующий игрок со щитом
+     * @param target цель отталкивания
+     */
+    private static void applyShieldKnockback(ServerPlayerEntity attacker, ServerPlayerEntity target) {
+        Vec3d dir = target.getPos().subtract(attacker.getPos()).normalize();
+        double force = CardRegistry.getEffectValue(EffectType.SHIELD_KNOCKBACK);
+        target.setVelocity(target.getVelocity().add(dir.x * force, SHIELD_KNOCKBACK_LIFT, dir.z * force));
+
+        if (EventMod.LOGGER.isDebugEnabled()) {
+            EventMod.LOGGER.debug("{}Отталкивание щитом: {} -> {}, сила {}",
+                    LOG_PREFIX, attacker.getName().getString(), target.getName().getString(), force);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package ru.rebey.eventmod.effect;
+
+import net.minecraft.server.network.ServerPlayerEntity;
+import ru.rebey.eventmod.data.PlayerLifecycleRegistry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Список игроков, на которых действует эффект.
+ * Добавление, удаление и проверка работают за O(1), обход не требует аллокаций.
+ * Список регистрируется в PlayerLifecycleRegistry и очищается при сбросе эффектов
+ * и отключении игрока. Эффект может передать обработчик освобождения, который снимет
+ * с сущности то, что эффект на нее наложил: при отключении он вызывается до сохранения
+ * игрока, поэтому бесконечные эффекты не попадают в NBT.
+ */
+public final class EffectMembers implements PlayerLifecycleRegistry.PlayerStore {
+    private final String name;
+    private final Consumer<ServerPlayerEntity> onRelease;
+
+    // Плотный список участников для обхода и индекс для быстрого удаления
+    private final List<UUID> members = new ArrayList<>();
+    private final Map<UUID, Integer> indices = new HashMap<>();
+
+    /**
+     * Создает пустой список участников.
+     * @param name имя эффекта (для логов и статистики)
+     */
+    public EffectMembers(String name) {
+        this(name, null);
+    }
+
+    /**
+     * Создает пустой список участников с обработчиком освобождения.
+     * @param name имя эффекта (для логов и статистики)
+     * @param onRelease вызывается для участника после его удаления при сбросе эффектов или отключении
+     */
+    public EffectMembers(String name, Consumer<ServerPlayerEntity> onRelease) {
+        this.name = name;
+        this.onRelease = onRelease;
+        PlayerLifecycleRegistry.register(PlayerLifecycleRegistry.Scope.EFFECTS, this);
+    }
+
+    /**
+     * Получает имя эффекта.
+     * @return имя эффекта
+     */
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public void release(ServerPlayerEntity player) {
+        if (remove(player.getUuid()) && onRelease != null) {
+            onRelease.accept(player);
+        }
+    }
+
+    @Override
+    public void forEachTracked(Consumer<UUID> action) {
+        members.forEach(action);
+    }
+
+    /**
+     * Добавляет игрока в список.
+     * @param uuid UUID игрока
+     * @return true если игрок был добавлен, false если уже был в списке
+     */
+    public boolean add(UUID uuid) {
+        if (indices.containsKey(uuid)) {
+            return false;
+        }
+        indices.put(uuid, members.size());
+        members.add(uuid);
+        return true;
+    }
+
+    /**
+     * Добавляет игрока в список.
+     * @param player игрок
+     * @return true если игрок был добавлен, false если уже был в списке
+     */
+    public boolean add(ServerPlayerEntity player) {
+        return add(player.getUuid());
+    }
+
+    /**
+     * Удаляет игрока из списка.
+     * Последний элемент переносится на место удаленного.
+     * @param uuid UUID игрока
+     * @return true если игрок был в списке
+     */
+    public boolean remove(UUID uuid) {
+        Integer index = indices.remove(uuid);
+        if (index == null) {
+            return false;
+        }
+
+        int last = members.size() - 1;
+        UUID moved = members.remove(last);
+        if (index != last) {
+            members.set(index, moved);
+            indices.put(moved, index);
+        }
+        return true;
+    }
+
+    /**
+     * Удаляет игрока из списка.
+     * @param player игрок
+     * @return true если игрок был в списке
+     */
+    public boolean remove(ServerPlayerEntity player) {
+        return remove(player.getUuid());
+    }
+
+    /**
+     * Проверяет, находится ли игрок в списке.
+     * @param uuid UUID игрока
+     * @return true если игрок в списке
+     */
+    public boolean contains(UUID uuid) {
+        return indices.containsKey(uuid);
+    }
+
+    /**
+     * Проверяет, находится ли игрок в списке.
+     * @param player игрок
+     * @return true если игрок в списке
+     */
+    public boolean contains(ServerPlayerEntity player) {
+        return contains(player.getUuid());
+    }
+
+    /**
+     * Получает UUID участника по позиции в списке.
+     * @param index позиция
+     * @return UUID игрока
+     */
+    public UUID get(int index) {
+        return members.get(index);
+    }
+
+    /**
+     * Получает количество участников.
+     * @return количество игроков
+     */
+    public int size() {
+        return members.size();
+    }
+
+    /**
+     * Проверяет, пуст ли список.
+     * @return true если участников нет
+     */
+    public boolean isEmpty() {
+        return members.isEmpty();
+    }
+}
@@ -0,0 +1,165 @@
+package ru.rebey.eventmod.effect;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.PlayerManager;
+import net.minecraft.server.network.ServerPlayerEntity;
+import ru.rebey.eventmod.EventMod;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Единый планировщик тиков эффектов.
+ * Вместо отдельного обработчика END_SERVER_TICK на каждый эффект регистрирует один обработчик,
+ * который обходит только игроков, на которых действует конкретный эффект.
+ */
+public final class EffectScheduler {
+    private static final String LOG_PREFIX = "[EffectScheduler] ";
+
+    // Интервал периодического логирования статистики (5 минут)
+    private static final long STATS_INTERVAL = 6000;
+
+    private static final List<Task> TASKS = new ArrayList<>();
+
+    static {
+        EventMod.LOGGER.info("{}Инициализация планировщика эффектов", LOG_PREFIX);
+        ServerTickEvents.END_SERVER_TICK.register(EffectScheduler::onEndTick);
+    }
+
+    private EffectScheduler() {
+    }
+
+    /**
+     * Обработчик тика эффекта для одного игрока.
+     */
+    @FunctionalInterface
+    public interface PlayerTask {
+        /**
+         * Выполняет тик эффекта для игрока.
+         * @param player игрок, на которого действует эффект
+         * @param currentTick текущий тик сервера
+         */
+        void tick(ServerPlayerEntity player, long currentTick);
+    }
+
+    /**
+     * Зарегистрированный тиковый эффект.
+     * Хранит интервал, фазу, обработчик и список участников.
+     */
+    public static final class Task {
+        private final int interval;
+        private final int phase;
+        private final PlayerTask handler;
+        private final EffectMembers members;
+
+        private Task(String name, int interval, int phase, PlayerTask handler) {
+            this.interval = interval;
+            this.phase = phase;
+            this.handler = handler;
+            this.members = new EffectMembers(name);
+        }
+
+        /**
+         * Получает список игроков, на которых действует эффект.
+         * @return список участников
+         */
+        public EffectMembers members() {
+            return members;
+        }
+
+        /**
+         * Получает интервал запуска в тиках.
+         * @return интервал
+         */
+        public int interval() {
+            return interval;
+        }
+
+        /**
+         * Получает фазу запуска внутри интервала.
+         * @return фаза
+         */
+        public int phase() {
+            return phase;
+        }
+
+        private boolean isDue(long currentTick) {
+            return interval == 1 || currentTick % interval == phase;
+        }
+    }
+
+    /**
+     * Регистрирует тиковый эффект.
+     * Эффекты с одинаковым интервалом стоит разносить по фазам, чтобы их работа не приходилась на один тик.
+     * @param name имя эффекта
+     * @param interval интервал запуска в тиках (1 = каждый тик)
+     * @param phase фаза запуска (0 ≤ phase < interval)
+     * @param handler обработчик тика для одного игрока
+     * @return зарегистрированная задача
+     */
+    public static Task register(String name, int interval, int phase, PlayerTask handler) {
+        if (interval < 1 || phase < 0 || phase >= interval) {
+            throw new IllegalArgumentException("Некорректные интервал/фаза для " + name + ": " + interval + "/" + phase);
+        }
+
+        Task task = new Task(name, interval, phase, handler);
+        TASKS.add(task);
+
+        EventMod.LOGGER.info("{}Зарегистрирован эффект {}: интервал {} тиков, фаза {}",
+                LOG_PREFIX, name, interval, phase);
+        return task;
+    }
+
+    /**
+     * Выполняет все эффекты, запуск которых приходится на текущий тик.
+     * @param server экземпляр сервера Minecraft
+     */
+    private static void onEndTick(MinecraftServer server) {
+        long currentTick = server.getTicks();
+        PlayerManager playerManager = server.getPlayerManager();
+
+        for (int t = 0; t < TASKS.size(); t++) {
+            Task task = TASKS.get(t);
+            EffectMembers members = task.members;
+            if (members.isEmpty() || !task.isDue(currentTick)) {
+                continue;
+            }
+
+            // Обход с конца: обработчик может снять эффект с текущего игрока
+            for (int i = members.size() - 1; i >= 0; i--) {
+                if (i >= members.size()) {
+                    continue;
+                }
+
+                ServerPlayerEntity player = playerManager.getPlayer(members.get(i));
+                if (player == null) {
+                    continue;
+                }
+
+                try {
+                    task.handler.tick(player, currentTick);
+                } catch (Exception e) {
+                    EventMod.LOGGER.error("{}Ошибка при обработке эффекта {} для игрока {}: {}",
+                            LOG_PREFIX, members.name(), player.getName().getString(), e.getMessage(), e);
+                }
+            }
+        }
+
+        if (currentTick % STATS_INTERVAL == 0 && EventMod.LOGGER.isDebugEnabled()) {
+            EventMod.LOGGER.debug("{}{}", LOG_PREFIX, getStats());
+        }
+    }
+
+    /**
+     * Получает статистику планировщика.
+     * @return строка со статистикой
+     */
+    public static String getStats() {
+        StringBuilder stats = new StringBuilder("EffectScheduler Stats: ");
+        for (Task task : TASKS) {
+            stats.append(String.format("%s=%d ", task.members.name(), task.members.size()));
+        }
+        return stats.toString().trim();
+    }
+}
@@ -0,0 +1,180 @@
+package ru.rebey.eventmod.effect;
+
+import ru.rebey.eventmod.EventMod;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Перечисление эффектов карточек.
+ * Каждый эффект имеет плотный порядковый номер и соответствующий бит в маске эффектов игрока,
+ * поэтому проверка наличия эффекта сводится к одной операции AND.
+ * У эффекта может быть числовой параметр (множитель, сила, количество здоровья);
+ * здесь задано значение по умолчанию, датапак карточек может его переопределить
+ * (см. CardRegistry.getEffectValue).
+ */
+public enum EffectType {
+    // Дополнительное здоровье (HP)
+    EXTRA_HEALTH_8("extra_health_8", 8.0),
+    // Множитель скорости передвижения
+    TANK_SLOWNESS("tank_slowness", 0.7),
+    // Множитель дистанции падения
+    FALL_DAMAGE_REDUCTION("fall_damage_reduction", 0.5),
+    // Горизонтальная сила отталкивания
+    SHIELD_KNOCKBACK("shield_knockback", 2.5),
+    // Множитель истощения голода
+    HUNGER_DRAIN("hunger_drain", 2.0),
+    // Множитель урона по целям с полным здоровьем
+    ASSASSIN_STRENGTH("assassin_strength", 1.5),
+    // Снижение здоровья (HP)
+    REDUCED_HEALTH_4("reduced_health_4", 4.0),
+    STEALTH_EFFECT("stealth_effect"),
+    LEATHER_ARMOR_ONLY("leather_armor_only"),
+    WEAPON_RESTRICTION("weapon_restriction"),
+    INCREASED_SPEED("increased_speed"),
+    FIRE_INVENTORY_DESTRUCTION("fire_inventory_destruction");
+
+    private static final EffectType[] VALUES = values();
+    private static final Map<String, EffectType> BY_ID = new HashMap<>();
+
+    static {
+        if (VALUES.length > Long.SIZE) {
+            throw new IllegalStateException("Маска эффектов вмещает не более " + Long.SIZE + " эффектов");
+        }
+        for (EffectType type : VALUES) {
+            BY_ID.put(type.id, type);
+        }
+    }
+
+    private final String id;
+    private final long bit;
+    private final double defaultValue;
+
+    /**
+     * Создает новый тип эффекта без параметра.
+     * @param id строковый идентификатор эффекта
+     */
+    EffectType(String id) {
+        this(id, 0.0);
+    }
+
+    /**
+     * Создает новый тип эффекта.
+     * @param id строковый идентификатор эффекта
+     * @param defaultValue значение параметра по умолчанию
+     */
+    EffectType(String id, double defaultValue) {
+        this.id = id;
+        this.bit = 1L << ordinal();
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * Получает строковый идентификатор эффекта.
+     * @return идентификатор эффекта
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Получает бит эффекта в маске.
+     * @return маска с единственным битом этого эффекта
+     */
+    public long bit() {
+        return bit;
+    }
+
+    /**
+     * Получает значение параметра эффекта по умолчанию.
+     * @return значение параметра
+     */
+    public double getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * Проверяет, присутствует ли эффект в маске.
+     * @param mask маска эффектов
+     * @return true если бит эффекта установлен
+     */
+    public boolean isIn(long mask) {
+        return (mask & bit) != 0;
+    }
+
+    /**
+     * Получает эффект по порядковому номеру.
+     * @param ordinal порядковый номер
+     * @return тип эффекта
+     */
+    public static EffectType byOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Получает количество зарегистрированных эффектов.
+     * @return количество эффектов
+     */
+    public static int count() {
+        return VALUES.length;
+    }
+
+    /**
+     * Преобразует идентификатор в тип эффекта.
+     * @param id идентификатор эффекта
+     * @return тип эффекта или null если не найден
+     */
+    public static EffectType fromId(String id) {
+        EffectType type = id != null ? BY_ID.get(id) : null;
+        if (type == null) {
+            EventMod.LOGGER.warn("[EffectType] Неизвестный ID эффекта: {}", id);
+        }
+        return type;
+    }
+
+    /**
+     * Собирает маску из строковых идентификаторов.
+     * Неизвестные идентификаторы пропускаются.
+     * @param ids идентификаторы эффектов
+     * @return маска эффектов
+     */
+    public static long maskOf(Collection<String> ids) {
+        long mask = 0L;
+        for (String id : ids) {
+            EffectType type = fromId(id);
+            if (type != null) {
+                mask |= type.bit;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Собирает маску из типов эффектов.
+     * @param types типы эффектов
+     * @return маска эффектов
+     */
+    public static long maskOf(EffectType... types) {
+        long mask = 0L;
+        for (EffectType type : types) {
+            mask |= type.bit;
+        }
+        return mask;
+    }
+
+    /**
+     * Преобразует маску в множество строковых идентификаторов (в порядке объявления).
+     * @param mask маска эффектов
+     * @return множество идентификаторов
+     */
+    public static Set<String> toIds(long mask) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (long m = mask; m != 0; m &= m - 1) {
+            ids.add(VALUES[Long.numberOfTrailingZeros(m)].id);
+        }
+        return ids;
+    }
+}
@@ -1,27 +1,25 @@
 package ru.rebey.eventmod.effect;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.entity.effect.StatusEffectInstance;
 import net.minecraft.entity.effect.StatusEffects;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import ru.rebey.eventmod.EventMod;
+import ru.rebey.eventmod.data.PlayerState;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.UUID;
 
 /**
  * Эффект экстренной регенерации.
  * Автоматически применяет регенерацию при низком здоровье, а затем голод.
+ * Здоровье проверяется не по тикам, а при каждом его изменении (см. LivingEntityHealthMixin),
+ * поэтому реакция на пересечение порога приходится на тот же тик.
  */
 public class EmergencyRegenEffect {
     private static final String LOG_PREFIX = "[EmergencyRegenEffect] ";
 
-    // Следим, получал ли игрок реген уже (чтобы не спамить)
-    private static final Map<UUID, Boolean> HAS_TRIGGERED = new HashMap<>();
-
-    // После регена — Hunger (запланированный)
-    private static final Map<UUID, Long> HUNGER_SCHEDULED = new HashMap<>();
+    // Флаг срабатывания регена (чтобы не спамить) и таймер запланированного голода
+    // хранятся в PlayerState игрока; голод срабатывает через TickTimingWheel
 
     // Порог здоровья для активации регенерации (30%)
     private static final float HEALTH_THRESHOLD = 0.3f;
@@ -38,82 +36,82 @@ public class EmergencyRegenEffect {
     // Длительность голода (12000 тиков = 10 минут)
     private static final int HUNGER_DURATION = 12000;
 
-    static {
-        EventMod.LOGGER.info("{}Инициализация эффекта экстренной регенерации", LOG_PREFIX);
-
-        ServerTickEvents.END_SERVER_TICK.register(server -> {
-            try {
-                long currentTick = server.getTicks();
-                int checkedPlayers = 0;
-                int triggeredRegen = 0;
-                int appliedHunger = 0;
-
-                for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
-                    checkedPlayers++;
-                    UUID uuid = player.getUuid();
-                    String playerName = player.getName().getString();
-
-                    float health = player.getHealth();
-                    float maxHealth = player.getMaxHealth();
-                    float percent = health / maxHealth;
-
-                    // Если HP < 30% и ещё не сработало
-                    if (percent < HEALTH_THRESHOLD && !HAS_TRIGGERED.getOrDefault(uuid, false)) {
-                        // Применяем регенерацию
-                        player.addStatusEffect(new StatusEffectInstance(
-                                StatusEffects.REGENERATION,
-                                REGEN_DURATION,
-                                REGEN_AMPLIFIER,
-                                false,
-                                true
-                        ));
-
-                        HAS_TRIGGERED.put(uuid, true);
-                        triggeredRegen++;
-
-                        // Запланировать Hunger через 5 секунд (100 тиков) — когда реген закончится
-                        HUNGER_SCHEDULED.put(uuid, currentTick + HUNGER_DELAY);
-
-                        EventMod.LOGGER.info("{}Активирована экстренная регенерация для игрока {}: {}/{} HP ({}%)",
-                                LOG_PREFIX, playerName, health, maxHealth, Math.round(percent * 100));
-                    }
-
-                    // Проверяем, не пора ли Hunger
-                    Long hungerTick = HUNGER_SCHEDULED.get(uuid);
-                    if (hungerTick != null && currentTick >= hungerTick) {
-                        player.addStatusEffect(new StatusEffectInstance(
-                                StatusEffects.HUNGER,
-                                HUNGER_DURATION,
-                                0,
-                                false,
-                                true
-                        ));
-
-                        HUNGER_SCHEDULED.remove(uuid);
-                        appliedHunger++;
-
-                        EventMod.LOGGER.info("{}Применен голод после регенерации игроку {} (длительность: {} минут)",
-                                LOG_PREFIX, playerName, HUNGER_DURATION / 1200);
-                    }
-                }
-
-                // Периодическое логирование статистики
-                if (currentTick % 6000 == 0) { // Каждые 5 минут
-                    EventMod.LOGGER.debug("{}Статистика: игроков проверено: {}, регенераций: {}, голода: {}, триггеров: {}, запланировано: {}",
-                            LOG_PREFIX, checkedPlayers, triggeredRegen, appliedHunger,
-                            HAS_TRIGGERED.size(), HUNGER_SCHEDULED.size());
-                }
-
-            } catch (Exception e) {
-                EventMod.LOGGER.error("{}Ошибка при обработке экстренной регенерации: {}",
-                        LOG_PREFIX, e.getMessage(), e);
-            }
-        });
+    // Игроки с эффектом (проверяются при изменении здоровья)
+    private static final EffectMembers AFFECTED_PLAYERS = new EffectMembers("emergency_regen");
 
+    static {
         EventMod.LOGGER.info("{}Эффект экстренной регенерации инициализирован. Порог: {}%, Задержка голода: {} тиков",
                 LOG_PREFIX, HEALTH_THRESHOLD * 100, HUNGER_DELAY);
     }
 
+    /**
+     * Проверяет новое здоровье игрока и применяет регенерацию и голод.
+     * Вызывается при каждом изменении здоровья, для игроков без эффекта сразу завершается.
+     * @param player игрок
+     */
+    public static void onHealthChanged(ServerPlayerEntity player) {
+        if (AFFECTED_PLAYERS.isEmpty() || !AFFECTED_PLAYERS.contains(player.getUuid())) {
+            return;
+        }
+
+        PlayerState state = PlayerState.of(player);
+        if (state.isRegenTriggered()) {
+            return;
+        }
+
+        float health = player.getHealth();
+        float maxHealth = player.getMaxHealth();
+        float percent = health / maxHealth;
+
+        // Если HP < 30% и ещё не сработало
+        if (percent < HEALTH_THRESHOLD) {
+            // Применяем регенерацию
+            player.addStatusEffect(new StatusEffectInstance(
+                    StatusEffects.REGENERATION,
+                    REGEN_DURATION,
+                    REGEN_AMPLIFIER,
+                    false,
+                    true
+            ));
+
+            state.setRegenTriggered(true);
+
+            // Запланировать Hunger через 5 секунд (100 тиков) — когда реген закончится
+            MinecraftServer server = player.getServer();
+            UUID uuid = player.getUuid();
+            state.cancelHunger();
+            state.setHungerTimer(TickTimingWheel.schedule(HUNGER_DELAY, () -> applyHunger(server, uuid)));
+
+            EventMod.LOGGER.info("{}Активирована экстренная регенерация для игрока {}: {}/{} HP ({}%)",
+                    LOG_PREFIX, player.getName().getString(), health, maxHealth, Math.round(percent * 100));
+        }
+    }
+
+    /**
+     * Применяет запланированный голод после регенерации.
+     * Игрок ищется заново, так как к моменту срабатывания сущность могла смениться.
+     * @param server экземпляр сервера Minecraft
+     * @param uuid UUID игрока
+     */
+    private static void applyHunger(MinecraftServer server, UUID uuid) {
+        ServerPlayerEntity player = server.getPlayerManager().getPlayer(uuid);
+        if (player == null) {
+            return;
+        }
+
+        PlayerState.of(player).setHungerTimer(null);
+        player.addStatusEffect(new StatusEffectInstance(
+                StatusEffects.HUNGER,
+                HUNGER_DURATION,
+                0,
+                false,
+                true
+        ));
+
+        EventMod.LOGGER.info("{}Применен голод после регенерации игроку {} (длительность: {} минут)",
+                LOG_PREFIX, player.getName().getString(), HUNGER_DURATION / 1200);
+    }
+
     /**
      * Применяет эффект экстренной регенерации к игроку.
      * Сбрасывает триггер при повторном применении.
@@ -123,12 +121,19 @@ public class EmergencyRegenEffect {
         UUID uuid = player.getUuid();
         String playerName = player.getName().getString();
 
+        AFFECTED_PLAYERS.add(uuid);
+
         // Сброс триггера при повторном применении (если карта получена снова)
-        boolean hadTrigger = HAS_TRIGGERED.remove(uuid) != null;
-        Long hadHungerScheduled = HUNGER_SCHEDULED.remove(uuid);
+        PlayerState state = PlayerState.of(player);
+        boolean hadTrigger = state.isRegenTriggered();
+        boolean hadHungerScheduled = state.cancelHunger();
+        state.setRegenTriggered(false);
 
         EventMod.LOGGER.info("{}Применение эффекта экстренной регенерации для игрока {}. Было: триггер={}, запланирован голод={}",
-                LOG_PREFIX, playerName, hadTrigger, hadHungerScheduled != null);
+                LOG_PREFIX, playerName, hadTrigger, hadHungerScheduled);
+
+        // Здоровье уже может быть ниже порога
+        onHealthChanged(player);
     }
 
     /**
@@ -136,14 +141,31 @@ public class EmergencyRegenEffect {
      * @param player игрок для сброса эффекта
      */
     public static void resetForPlayer(ServerPlayerEntity player) {
-        UUID uuid = player.getUuid();
         String playerName = player.getName().getString();
 
-        boolean hadTrigger = HAS_TRIGGERED.remove(uuid) != null;
-        Long hadHungerScheduled = HUNGER_SCHEDULED.remove(uuid);
+        PlayerState state = PlayerState.of(player);
+        boolean hadTrigger = state.isRegenTriggered();
+        boolean hadHungerScheduled = state.cancelHunger();
+        state.setRegenTriggered(false);
 
         EventMod.LOGGER.info("{}Сброс эффекта экстренной регенерации для игрока {}. Удалено: триггер={}, запланирован голод={}",
-                LOG_PREFIX, playerName, hadTrigger, hadHungerScheduled != null);
+                LOG_PREFIX, playerName, hadTrigger, hadHungerScheduled);
+    }
+
+    /**
+     * Удаляет эффект экстренной регенерации у игрока.
+     * @param player игрок для удаления эффекта
+     */
+    public static void remove(ServerPlayerEntity player) {
+        UUID uuid = player.getUuid();
+        if (AFFECTED_PLAYERS.remove(uuid)) {
+            PlayerState state = PlayerState.of(player);
+            state.setRegenTriggered(false);
+            state.cancelHunger();
+
+            EventMod.LOGGER.info("{}Эффект экстренной регенерации снят с игрока {}. Осталось игроков: {}",
+                    LOG_PREFIX, player.getName().getString(), AFFECTED_PLAYERS.size());
+        }
     }
 
     /**
@@ -152,9 +174,9 @@ public class EmergencyRegenEffect {
      * @return true если эффект активен (триггер сработал или голод запланирован)
      */
     public static boolean isActive(ServerPlayerEntity player) {
-        UUID uuid = player.getUuid();
-        boolean hasTriggered = HAS_TRIGGERED.getOrDefault(uuid, false);
-        boolean hasHungerScheduled = HUNGER_SCHEDULED.containsKey(uuid);
+        PlayerState state = PlayerState.peek(player);
+        boolean hasTriggered = state != null && state.isRegenTriggered();
+        boolean hasHungerScheduled = state != null && state.isHungerScheduled();
 
         EventMod.LOGGER.trace("{}Проверка активности эффекта для игрока {}: triggered={}, hungerScheduled={}",
                 LOG_PREFIX, player.getName().getString(), hasTriggered, hasHungerScheduled);
@@ -167,7 +189,6 @@ public class EmergencyRegenEffect {
      * @return строка со статистикой
      */
     public static String getStats() {
-        return String.format("EmergencyRegen Stats: Triggered=%d, HungerScheduled=%d",
-                HAS_TRIGGERED.size(), HUNGER_SCHEDULED.size());
+        return String.format("EmergencyRegen Stats: AffectedPlayers=%d", AFFECTED_PLAYERS.size());
     }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package ru.rebey.eventmod.effect;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
+import net.minecraft.entity.EquipmentSlot;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.item.ItemStack;
+import net.minecraft.server.network.ServerPlayerEntity;
+import ru.rebey.eventmod.EventMod;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Единый обработчик смены экипировки для эффектов-ограничений.
+ * Вместо периодического опроса слотов реагирует на событие EQUIPMENT_CHANGE
+ * и передает эффекту только изменившийся слот в момент изменения.
+ */
+public final class EquipmentWatcher {
+    private static final String LOG_PREFIX = "[EquipmentWatcher] ";
+
+    private static final List<Watch> WATCHES = new ArrayList<>();
+
+    static {
+        EventMod.LOGGER.info("{}Инициализация обработчика смены экипировки", LOG_PREFIX);
+        ServerEntityEvents.EQUIPMENT_CHANGE.register(EquipmentWatcher::onEquipmentChange);
+    }
+
+    private EquipmentWatcher() {
+    }
+
+    /**
+     * Обработчик смены предмета в слоте.
+     */
+    @FunctionalInterface
+    public interface SlotHandler {
+        /**
+         * Проверяет новый предмет в слоте.
+         * @param player игрок, на которого действует эффект
+         * @param slot изменившийся слот
+         * @param stack новый предмет в слоте (не пустой)
+         */
+        void onChange(ServerPlayerEntity player, EquipmentSlot slot, ItemStack stack);
+    }
+
+    /**
+     * Зарегистрированное наблюдение за слотами одного типа.
+     */
+    public static final class Watch {
+        private final EquipmentSlot.Type slotType;
+        private final SlotHandler handler;
+        private final EffectMembers members;
+
+        private Watch(String name, EquipmentSlot.Type slotType, SlotHandler handler) {
+            this.slotType = slotType;
+            this.handler = handler;
+            this.members = new EffectMembers(name);
+        }
+
+        /**
+         * Получает список игроков, на которых действует эффект.
+         * @return список участников
+         */
+        public EffectMembers members() {
+            return members;
+        }
+    }
+
+    /**
+     * Регистрирует наблюдение за слотами экипировки.
+     * @param name имя эффекта
+     * @param slotType тип отслеживаемых слотов (руки или броня)
+     * @param handler обработчик нового предмета в слоте
+     * @return зарегистрированное наблюдение
+     */
+    public static Watch register(String name, EquipmentSlot.Type slotType, SlotHandler handler) {
+        Watch watch = new Watch(name, slotType, handler);
+        WATCHES.add(watch);
+
+        EventMod.LOGGER.info("{}Зарегистрирован эффект {}: слоты {}", LOG_PREFIX, name, slotType);
+        return watch;
+    }
+
+    /**
+     * Передает изменившийся слот эффектам, которые за ним следят.
+     * @param entity сущность, у которой изменилась экипировка
+     * @param slot изменившийся слот
+     * @param previous предыдущий предмет
+     * @param current новый предмет
+     */
+    private static void onEquipmentChange(LivingEntity entity, EquipmentSlot slot, ItemStack previous, ItemStack current) {
+        // Снятие предмета ничего не нарушает
+        if (!(entity instanceof ServerPlayerEntity player) || current.isEmpty()) {
+            return;
+        }
+
+        EquipmentSlot.Type slotType = slot.getType();
+        for (int w = 0; w < WATCHES.size(); w++) {
+            Watch watch = WATCHES.get(w);
+            if (watch.slotType != slotType || watch.members.isEmpty() || !watch.members.contains(player)) {
+                continue;
+            }
+
+            try {
+                watch.handler.onChange(player, slot, current);
+            } catch (Exception e) {
+                EventMod.LOGGER.error("{}Ошибка при обработке эффекта {} для игрока {}: {}",
+                        LOG_PREFIX, watch.members.name(), player.getName().getString(), e.getMessage(), e);
+            }
+        }
+    }
+}
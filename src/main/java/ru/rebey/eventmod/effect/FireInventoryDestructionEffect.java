@@ -1,119 +1,141 @@
 package ru.rebey.eventmod.effect;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.entity.player.PlayerInventory;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 import ru.rebey.eventmod.EventMod;
+import ru.rebey.eventmod.data.PlayerState;
 
-import java.util.HashSet;
 import java.util.Random;
-import java.util.Set;
 import java.util.UUID;
 
 /**
  * Эффект уничтожения инвентаря огнем.
- * Уничтожает случайный предмет из инвентаря, когда игрок горит или находится в лаве.
+ * Уничтожает случайный непустой предмет из инвентаря, когда игрок получает урон
+ * огнем или лавой (см. LivingEntityDamageMixin), но не чаще раза в секунду.
+ * Случайный предмет выбирается по маске занятых слотов, которая собирается заново
+ * при каждом срабатывании: setStack и insertStack не меняют счетчик инвентаря,
+ * поэтому кешировать маску между срабатываниями нельзя.
  */
 public class FireInventoryDestructionEffect {
     private static final String LOG_PREFIX = "[FireInventoryDestructionEffect] ";
 
-    private static final Set<UUID> AFFECTED_PLAYERS = new HashSet<>();
     private static final Random RANDOM = new Random();
-    private static final int CHECK_INTERVAL = 20; // каждую секунду (20 тиков)
+    // Не чаще одного предмета в секунду (20 тиков) при получении урона огнем
+    private static final long DESTRUCTION_INTERVAL = 20;
 
     // Размеры инвентаря для случайного выбора
     private static final int INVENTORY_SIZE = 36; // основной инвентарь (0-35)
     private static final int HOTBAR_SIZE = 9; // горячая панель (0-8)
     private static final int MAIN_INVENTORY_START = 9; // начало основного инвентаря
 
+    // Игроки с эффектом (обрабатываются только при уроне огнем)
+    private static final EffectMembers AFFECTED_PLAYERS = new EffectMembers("fire_inventory_destruction");
+
     static {
-        EventMod.LOGGER.info("{}Инициализация эффекта уничтожения инвентаря огнем", LOG_PREFIX);
-
-        ServerTickEvents.END_SERVER_TICK.register(server -> {
-            if (server.getTicks() % CHECK_INTERVAL != 0) return;
-
-            try {
-                int checkedPlayers = 0;
-                int destroyedItems = 0;
-
-                for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
-                    if (AFFECTED_PLAYERS.contains(player.getUuid())) {
-                        checkedPlayers++;
-
-                        // Проверяем, горит ли игрок или находится в лаве
-                        if (player.isInLava() || player.isOnFire()) {
-                            destroyedItems += destroyRandomItem(player);
-                        }
-                    }
-                }
-
-                if (destroyedItems > 0) {
-                    EventMod.LOGGER.debug("{}Проверено игроков: {}, уничтожено предметов: {}",
-                            LOG_PREFIX, checkedPlayers, destroyedItems);
-                }
-
-            } catch (Exception e) {
-                EventMod.LOGGER.error("{}Ошибка при обработке эффекта уничтожения инвентаря: {}",
-                        LOG_PREFIX, e.getMessage(), e);
+        EventMod.LOGGER.info("{}Эффект уничтожения инвентаря огнем инициализирован. Не чаще раза в {} тиков",
+                LOG_PREFIX, DESTRUCTION_INTERVAL);
+    }
+
+    /**
+     * Обрабатывает урон огнем или лавой, полученный игроком.
+     * Для игроков без эффекта сразу завершается.
+     * @param player игрок
+     */
+    public static void onFireDamage(ServerPlayerEntity player) {
+        if (AFFECTED_PLAYERS.isEmpty() || !AFFECTED_PLAYERS.contains(player.getUuid())) {
+            return;
+        }
+
+        long currentTick = player.getServer().getTicks();
+        PlayerState state = PlayerState.of(player);
+        long lastTick = state.getFireDestructionTick();
+        if (lastTick != PlayerState.NO_TICK && currentTick - lastTick < DESTRUCTION_INTERVAL) {
+            return;
+        }
+
+        state.setFireDestructionTick(currentTick);
+        destroyRandomItem(player);
+    }
+
+    /**
+     * Получает маску занятых слотов основного инвентаря.
+     * @param inv инвентарь игрока
+     * @return маска занятых слотов (бит i - слот i)
+     */
+    private static long occupiedSlots(PlayerInventory inv) {
+        long mask = 0L;
+        for (int slot = 0; slot < INVENTORY_SIZE; slot++) {
+            if (!inv.getStack(slot).isEmpty()) {
+                mask |= 1L << slot;
             }
-        });
+        }
+        return mask;
+    }
 
-        EventMod.LOGGER.info("{}Эффект уничтожения инвентаря огнем инициализирован. Проверка каждые {} тиков",
-                LOG_PREFIX, CHECK_INTERVAL);
+    /**
+     * Выбирает случайный бит маски.
+     * @param mask непустая маска
+     * @return номер выбранного бита
+     */
+    private static int randomSetBit(long mask) {
+        for (int skip = RANDOM.nextInt(Long.bitCount(mask)); skip > 0; skip--) {
+            mask &= mask - 1;
+        }
+        return Long.numberOfTrailingZeros(mask);
     }
 
     /**
-     * Уничтожает случайный предмет из инвентаря игрока.
+     * Уничтожает случайный непустой предмет из инвентаря игрока.
      * @param player игрок
-     * @return 1 если предмет уничтожен, 0 если нет
+     * @return 1 если предмет уничтожен, 0 если инвентарь пуст
      */
     private static int destroyRandomItem(ServerPlayerEntity player) {
-        String playerName = player.getName().getString();
-        var inv = player.getInventory();
+        PlayerInventory inv = player.getInventory();
+        long mask = occupiedSlots(inv);
 
-        // Выбираем случайный слот из основного инвентаря (0–35)
-        int slot = RANDOM.nextInt(INVENTORY_SIZE);
+        if (mask == 0L) {
+            EventMod.LOGGER.trace("{}Инвентарь игрока {} пуст", LOG_PREFIX, player.getName().getString());
+            return 0;
+        }
+
+        int slot = randomSetBit(mask);
         ItemStack stack = inv.getStack(slot);
+        String playerName = player.getName().getString();
+        try {
+            // Сохраняем информацию о предмете для лога
+            String itemName = stack.getItem().getName().getString();
+            int itemCount = stack.getCount();
+
+            // Уничтожаем предмет
+            inv.setStack(slot, ItemStack.EMPTY);
 
-        if (!stack.isEmpty()) {
-            try {
-                // Сохраняем информацию о предмете для лога
-                String itemName = stack.getItem().getName().getString();
-                int itemCount = stack.getCount();
-
-                // Уничтожаем предмет
-                inv.setStack(slot, ItemStack.EMPTY);
-
-                // Отправляем сообщение игроку
-                player.sendMessage(
-                        Text.literal("🔥 Предмет уничтожен огнём!").formatted(Formatting.RED),
-                        true
-                );
-
-                EventMod.LOGGER.info("{}Уничтожен предмет из слота {} у игрока {}: {} x{}",
-                        LOG_PREFIX, slot, playerName, itemName, itemCount);
-
-                // Дополнительное логирование для отладки
-                if (slot < HOTBAR_SIZE) {
-                    EventMod.LOGGER.debug("{}  Уничтожен предмет из горячей панели (слот {})",
-                            LOG_PREFIX, slot);
-                } else if (slot < MAIN_INVENTORY_START + 27) {
-                    EventMod.LOGGER.debug("{}  Уничтожен предмет из основного инвентаря (слот {})",
-                            LOG_PREFIX, slot - MAIN_INVENTORY_START);
-                }
-
-                return 1;
-            } catch (Exception e) {
-                EventMod.LOGGER.error("{}Ошибка при уничтожении предмета у игрока {}: {}",
-                        LOG_PREFIX, playerName, e.getMessage(), e);
+            // Отправляем сообщение игроку
+            player.sendMessage(
+                    Text.literal("🔥 Предмет уничтожен огнём!").formatted(Formatting.RED),
+                    true
+            );
+
+            EventMod.LOGGER.info("{}Уничтожен предмет из слота {} у игрока {}: {} x{}",
+                    LOG_PREFIX, slot, playerName, itemName, itemCount);
+
+            // Дополнительное логирование для отладки
+            if (slot < HOTBAR_SIZE) {
+                EventMod.LOGGER.debug("{}  Уничтожен предмет из горячей панели (слот {})",
+                        LOG_PREFIX, slot);
+            } else if (slot < MAIN_INVENTORY_START + 27) {
+                EventMod.LOGGER.debug("{}  Уничтожен предмет из основного инвентаря (слот {})",
+                        LOG_PREFIX, slot - MAIN_INVENTORY_START);
             }
-        } else {
-            EventMod.LOGGER.trace("{}Слот {} у игрока {} пуст", LOG_PREFIX, slot, playerName);
-        }
 
-        return 0;
+            return 1;
+        } catch (Exception e) {
+            EventMod.LOGGER.error("{}Ошибка при уничтожении предмета у игрока {}: {}",
+                    LOG_PREFIX, playerName, e.getMessage(), e);
+            return 0;
+        }
     }
 
     /**
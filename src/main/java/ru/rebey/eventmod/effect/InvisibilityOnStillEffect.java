@@ -1,16 +1,11 @@
 package ru.rebey.eventmod.effect;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.entity.effect.StatusEffectInstance;
 import net.minecraft.entity.effect.StatusEffects;
 import net.minecraft.server.network.ServerPlayerEntity;
-import net.minecraft.util.math.Vec3d;
 import ru.rebey.eventmod.EventMod;
+import ru.rebey.eventmod.data.PlayerState;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -20,78 +15,47 @@ import java.util.UUID;
 public class InvisibilityOnStillEffect {
     private static final String LOG_PREFIX = "[InvisibilityOnStillEffect] ";
 
-    // Время последнего движения для каждого игрока
-    private static final Map<UUID, Long> LAST_MOVE_TICK = new HashMap<>();
-
-    // Флаг невидимости для каждого игрока
-    private static final Map<UUID, Boolean> HAS_INVISIBILITY = new HashMap<>();
-
-    // Игроки с активным эффектом
-    private static final Set<UUID> AFFECTED_PLAYERS = new HashSet<>();
+    // Время последнего движения и флаг невидимости хранятся в PlayerState игрока
 
     // Время неподвижности для активации невидимости (10 секунд = 200 тиков)
     private static final long STILL_DURATION_TICKS = 200L;
 
-    // Длительность эффекта невидимости при применении (10 секунд = 200 тиков)
-    private static final int INVISIBILITY_DURATION = 200;
+    // Невидимость держится до первого движения; при сбросе эффектов и отключении снимается
+    private static final int INVISIBILITY_DURATION = StatusEffectInstance.INFINITE;
 
-    static {
-        EventMod.LOGGER.info("{}Инициализация эффекта невидимости при неподвижности", LOG_PREFIX);
-
-        ServerTickEvents.END_SERVER_TICK.register(server -> {
-            try {
-                long currentTick = server.getTicks();
-                int checkedPlayers = 0;
-                int gainedInvisibility = 0;
-                int lostInvisibility = 0;
-
-                for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
-                    if (AFFECTED_PLAYERS.contains(player.getUuid())) {
-                        checkedPlayers++;
-
-                        Vec3d motion = player.getVelocity();
-                        boolean isStill = motion.x == 0.0 && motion.z == 0.0 && !player.isSneaking();
-
-                        if (isStill) {
-                            Long lastMove = LAST_MOVE_TICK.getOrDefault(player.getUuid(), 0L);
-
-                            // Проверяем, прошло ли достаточно времени для активации невидимости
-                            if (currentTick - lastMove >= STILL_DURATION_TICKS) {
-                                if (!HAS_INVISIBILITY.getOrDefault(player.getUuid(), false)) {
-                                    applyInvisibility(player);
-                                    HAS_INVISIBILITY.put(player.getUuid(), true);
-                                    gainedInvisibility++;
-                                }
-                            }
-                        } else {
-                            // Игрок двигается — обновляем время последнего движения
-                            LAST_MOVE_TICK.put(player.getUuid(), currentTick);
-
-                            if (HAS_INVISIBILITY.getOrDefault(player.getUuid(), false)) {
-                                removeInvisibility(player);
-                                HAS_INVISIBILITY.put(player.getUuid(), false);
-                                lostInvisibility++;
-                            }
-                        }
-                    }
-                }
-
-                // Периодическое логирование статистики
-                if (currentTick % 6000 == 0) { // Каждые 5 минут
-                    EventMod.LOGGER.debug("{}Статистика: игроков проверено: {}, получили невидимость: {}, потеряли невидимость: {}, активных игроков: {}",
-                            LOG_PREFIX, checkedPlayers, gainedInvisibility, lostInvisibility, AFFECTED_PLAYERS.size());
-                }
-
-            } catch (Exception e) {
-                EventMod.LOGGER.error("{}Ошибка при обработке эффекта невидимости при неподвижности: {}",
-                        LOG_PREFIX, e.getMessage(), e);
-            }
-        });
+    // Игроки с активным эффектом (события неподвижности приходят от MovementTracker)
+    private static final EffectMembers AFFECTED_PLAYERS =
+            new EffectMembers("invisibility_on_still", InvisibilityOnStillEffect::release);
 
+    static {
+        MovementTracker.subscribe(AFFECTED_PLAYERS, 0, STILL_DURATION_TICKS, new StillnessListener());
         EventMod.LOGGER.info("{}Эффект невидимости при неподвижности инициализирован. Время до активации: {} тиков ({} секунд)",
                 LOG_PREFIX, STILL_DURATION_TICKS, STILL_DURATION_TICKS / 20);
     }
 
+    /**
+     * Обрабатывает события неподвижности участников эффекта.
+     */
+    private static final class StillnessListener implements MovementTracker.Listener {
+        @Override
+        public void onStillFor(ServerPlayerEntity player, long currentTick) {
+            PlayerState state = PlayerState.of(player);
+            if (!state.isStillInvisible()) {
+                applyInvisibility(player);
+                state.setStillInvisible(true);
+            }
+        }
+
+        @Override
+        public void onMoveStart(ServerPlayerEntity player, long currentTick) {
+            PlayerState state = PlayerState.of(player);
+            if (state.isStillInvisible()) {
+                removeInvisibility(player);
+                state.setStillInvisible(false);
+            }
+        }
+    }
+
     /**
      * Применяет эффект невидимости при неподвижности к игроку.
      * @param player игрок для применения эффекта
@@ -102,8 +66,9 @@ public class InvisibilityOnStillEffect {
 
         if (AFFECTED_PLAYERS.add(uuid)) {
             long currentTick = player.getServer().getTicks();
-            LAST_MOVE_TICK.put(uuid, currentTick);
-            HAS_INVISIBILITY.put(uuid, false);
+            PlayerState state = PlayerState.of(player);
+            state.setLastMoveTick(currentTick);
+            state.setStillInvisible(false);
 
             EventMod.LOGGER.info("{}Применение эффекта невидимости при неподвижности к игроку {}",
                     LOG_PREFIX, playerName);
@@ -143,8 +108,7 @@ public class InvisibilityOnStillEffect {
                     false
             ));
 
-            EventMod.LOGGER.info("{}Применена невидимость к игроку {} (длительность: {} секунд)",
-                    LOG_PREFIX, playerName, INVISIBILITY_DURATION / 20);
+            EventMod.LOGGER.info("{}Применена невидимость к игроку {}", LOG_PREFIX, playerName);
 
             // Отправляем уведомление игроку
             player.sendMessage(
@@ -191,12 +155,12 @@ public class InvisibilityOnStillEffect {
 
         if (AFFECTED_PLAYERS.remove(uuid)) {
             // Удаляем невидимость если она активна
-            if (HAS_INVISIBILITY.getOrDefault(uuid, false)) {
+            PlayerState state = PlayerState.of(player);
+            if (state.isStillInvisible()) {
                 removeInvisibility(player);
             }
 
-            LAST_MOVE_TICK.remove(uuid);
-            HAS_INVISIBILITY.remove(uuid);
+            state.setStillInvisible(false);
 
             EventMod.LOGGER.info("{}Эффект невидимости при неподвижности снят с игрока {}. Осталось игроков: {}",
                     LOG_PREFIX, playerName, AFFECTED_PLAYERS.size());
@@ -211,6 +175,18 @@ public class InvisibilityOnStillEffect {
         }
     }
 
+    /**
+     * Снимает невидимость без сообщений при сбросе эффектов или отключении.
+     * @param player игрок
+     */
+    private static void release(ServerPlayerEntity player) {
+        PlayerState state = PlayerState.of(player);
+        if (state.isStillInvisible()) {
+            player.removeStatusEffect(StatusEffects.INVISIBILITY);
+            state.setStillInvisible(false);
+        }
+    }
+
     /**
      * Проверяет, имеет ли игрок эффект невидимости при неподвижности.
      * @param player игрок для проверки
@@ -229,7 +205,8 @@ public class InvisibilityOnStillEffect {
      * @return true если игрок невидим
      */
     public static boolean isInvisible(ServerPlayerEntity player) {
-        boolean isInvisible = HAS_INVISIBILITY.getOrDefault(player.getUuid(), false);
+        PlayerState state = PlayerState.peek(player);
+        boolean isInvisible = state != null && state.isStillInvisible();
         EventMod.LOGGER.trace("{}Проверка невидимости игрока {}: {}",
                 LOG_PREFIX, player.getName().getString(), isInvisible);
         return isInvisible;
@@ -243,20 +220,11 @@ public class InvisibilityOnStillEffect {
         return AFFECTED_PLAYERS.size();
     }
 
-    /**
-     * Получает количество невидимых игроков.
-     * @return количество игроков
-     */
-    public static int getInvisiblePlayerCount() {
-        return (int) HAS_INVISIBILITY.values().stream().filter(v -> v).count();
-    }
-
     /**
      * Получает статистику эффекта.
      * @return строка со статистикой
      */
     public static String getStats() {
-        return String.format("InvisibilityOnStill Stats: AffectedPlayers=%d, Invisible=%d",
-                AFFECTED_PLAYERS.size(), getInvisiblePlayerCount());
+        return String.format("InvisibilityOnStill Stats: AffectedPlayers=%d", AFFECTED_PLAYERS.size());
     }
 }
\ No newline at end of file
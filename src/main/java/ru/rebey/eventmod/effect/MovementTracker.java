@@ -0,0 +1,232 @@
+package ru.rebey.eventmod.effect;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.PlayerManager;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.math.Vec3d;
+import ru.rebey.eventmod.EventMod;
+import ru.rebey.eventmod.data.PlayerState;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Общий трекер движения игроков.
+ * Раз в тик вычисляет для игрока состояние (приседает, неподвижен) и переходы между
+ * состояниями, сохраняет их в PlayerState и раздает подписчикам события вида
+ * "начал приседать" или "неподвижен N тиков". Если игрок входит в несколько подписок,
+ * состояние вычисляется один раз, остальные подписки читают сохраненный результат.
+ * Неподвижным считается игрок без горизонтальной скорости, который не приседает.
+ * Методы нужно вызывать только из потока сервера.
+ */
+public final class MovementTracker {
+    private static final String LOG_PREFIX = "[MovementTracker] ";
+
+    // Состояние
+    public static final int SNEAKING = 1;
+    public static final int STILL = 1 << 1;
+    // Переходы за текущий тик
+    public static final int SNEAK_STARTED = 1 << 2;
+    public static final int SNEAK_STOPPED = 1 << 3;
+    public static final int STOPPED = 1 << 4;
+    public static final int MOVE_STARTED = 1 << 5;
+
+    private static final int STATE_MASK = SNEAKING | STILL;
+
+    private static final List<Subscription> SUBSCRIPTIONS = new ArrayList<>();
+
+    static {
+        ServerTickEvents.END_SERVER_TICK.register(MovementTracker::onEndTick);
+    }
+
+    private MovementTracker() {
+    }
+
+    /**
+     * Получатель событий движения. Все методы необязательны.
+     */
+    public interface Listener {
+        /**
+         * Игрок начал приседать.
+         * @param player игрок
+         * @param currentTick текущий тик сервера
+         */
+        default void onSneakStart(ServerPlayerEntity player, long currentTick) {
+        }
+
+        /**
+         * Игрок приседает ровно столько тиков, сколько указано в подписке.
+         * @param player игрок
+         * @param currentTick текущий тик сервера
+         */
+        default void onSneakHeld(ServerPlayerEntity player, long currentTick) {
+        }
+
+        /**
+         * Игрок перестал приседать.
+         * @param player игрок
+         * @param currentTick текущий тик сервера
+         */
+        default void onSneakStop(ServerPlayerEntity player, long currentTick) {
+        }
+
+        /**
+         * Игрок неподвижен ровно столько тиков, сколько указано в подписке.
+         * @param player игрок
+         * @param currentTick текущий тик сервера
+         */
+        default void onStillFor(ServerPlayerEntity player, long currentTick) {
+        }
+
+        /**
+         * Игрок начал двигаться после неподвижности.
+         * @param player игрок
+         * @param currentTick текущий тик сервера
+         */
+        default void onMoveStart(ServerPlayerEntity player, long currentTick) {
+        }
+    }
+
+    /**
+     * Подписка на события движения игроков из списка участников эффекта.
+     */
+    private record Subscription(EffectMembers members, long sneakTicks, long stillTicks, Listener listener) {
+    }
+
+    /**
+     * Подписывает эффект на события движения его участников.
+     * @param members участники эффекта
+     * @param sneakTicks длительность приседания для onSneakHeld (0 = не нужно)
+     * @param stillTicks длительность неподвижности для onStillFor (0 = не нужно)
+     * @param listener получатель событий
+     */
+    public static void subscribe(EffectMembers members, long sneakTicks, long stillTicks, Listener listener) {
+        SUBSCRIPTIONS.add(new Subscription(members, sneakTicks, stillTicks, listener));
+        EventMod.LOGGER.info("{}Подписка {}: приседание {} тиков, неподвижность {} тиков",
+                LOG_PREFIX, members.name(), sneakTicks, stillTicks);
+    }
+
+    /**
+     * Получает состояние движения игрока в текущем тике, вычисляя его при первом обращении.
+     * Игрок, которого не отслеживали в предыдущем тике, считается только что остановившимся
+     * и не приседавшим.
+     * @param player игрок
+     * @param state состояние игрока
+     * @param currentTick текущий тик сервера
+     * @return флаги состояния и переходов
+     */
+    public static int update(ServerPlayerEntity player, PlayerState state, long currentTick) {
+        long lastTick = state.getMovementTick();
+        if (lastTick == currentTick) {
+            return state.getMovementFlags();
+        }
+
+        boolean tracked = lastTick == currentTick - 1;
+        int previous = tracked ? state.getMovementFlags() & STATE_MASK : STILL;
+
+        Vec3d motion = player.getVelocity();
+        boolean sneaking = player.isSneaking();
+        boolean still = motion.x == 0.0 && motion.z == 0.0 && !sneaking;
+
+        int flags = (sneaking ? SNEAKING : 0) | (still ? STILL : 0);
+        if (sneaking && (previous & SNEAKING) == 0) {
+            flags |= SNEAK_STARTED;
+            state.setSneakStartTick(currentTick);
+        } else if (!sneaking && (previous & SNEAKING) != 0) {
+            flags |= SNEAK_STOPPED;
+            state.setSneakStartTick(PlayerState.NO_TICK);
+        } else if (!tracked && !sneaking) {
+            state.setSneakStartTick(PlayerState.NO_TICK);
+        }
+
+        if (!still) {
+            state.setLastMoveTick(currentTick);
+            if ((previous & STILL) != 0 && tracked) {
+                flags |= MOVE_STARTED;
+            }
+        } else if (!tracked) {
+            state.setLastMoveTick(currentTick);
+        } else if ((previous & STILL) == 0) {
+            flags |= STOPPED;
+        }
+
+        state.setMovement((byte) flags, currentTick);
+        return flags;
+    }
+
+    /**
+     * Обновляет состояние участников всех подписок и раздает события.
+     * @param server экземпляр сервера Minecraft
+     */
+    private static void onEndTick(MinecraftServer server) {
+        long currentTick = server.getTicks();
+        PlayerManager playerManager = server.getPlayerManager();
+
+        for (int s = 0; s < SUBSCRIPTIONS.size(); s++) {
+            Subscription subscription = SUBSCRIPTIONS.get(s);
+            EffectMembers members = subscription.members();
+
+            // Обход с конца: обработчик может снять эффект с текущего игрока
+            for (int i = members.size() - 1; i >= 0; i--) {
+                if (i >= members.size()) {
+                    continue;
+                }
+
+                ServerPlayerEntity player = playerManager.getPlayer(members.get(i));
+                if (player == null) {
+                    continue;
+                }
+
+                try {
+                    dispatch(subscription, player, currentTick);
+                } catch (Exception e) {
+                    EventMod.LOGGER.error("{}Ошибка при обработке движения {} для игрока {}: {}",
+                            LOG_PREFIX, members.name(), player.getName().getString(), e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Передает подписчику события игрока за текущий тик.
+     * @param subscription подписка
+     * @param player игрок
+     * @param currentTick текущий тик сервера
+     */
+    private static void dispatch(Subscription subscription, ServerPlayerEntity player, long currentTick) {
+        PlayerState state = PlayerState.of(player);
+        int flags = update(player, state, currentTick);
+        Listener listener = subscription.listener();
+
+        if ((flags & SNEAK_STARTED) != 0) {
+            listener.onSneakStart(player, currentTick);
+        }
+        if ((flags & SNEAK_STOPPED) != 0) {
+            listener.onSneakStop(player, currentTick);
+        }
+        if ((flags & MOVE_STARTED) != 0) {
+            listener.onMoveStart(player, currentTick);
+        }
+        if ((flags & SNEAKING) != 0 && subscription.sneakTicks() > 0
+                && currentTick - state.getSneakStartTick() == subscription.sneakTicks()) {
+            listener.onSneakHeld(player, currentTick);
+        }
+        if ((flags & STILL) != 0 && subscription.stillTicks() > 0
+                && currentTick - state.getLastMoveTick() == subscription.stillTicks()) {
+            listener.onStillFor(player, currentTick);
+        }
+    }
+
+    /**
+     * Получает статистику трекера.
+     * @return строка со статистикой
+     */
+    public static String getStats() {
+        StringBuilder stats = new StringBuilder("MovementTracker Stats: ");
+        for (Subscription subscription : SUBSCRIPTIONS) {
+            stats.append(String.format("%s=%d ", subscription.members().name(), subscription.members().size()));
+        }
+        return stats.toString().trim();
+    }
+}
@@ -0,0 +1,197 @@
+package ru.rebey.eventmod.effect;
+
+import net.minecraft.entity.effect.StatusEffect;
+import net.minecraft.entity.effect.StatusEffectInstance;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import ru.rebey.eventmod.EventMod;
+import ru.rebey.eventmod.data.PlayerState;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Закрепленные ванильные эффекты.
+ * Эффект накладывается один раз с бесконечной длительностью и не проверяется по тикам.
+ * Если его снимает что-то постороннее (молоко, /effect clear), снятие замечается
+ * в onStatusEffectRemoved (см. ServerPlayerEntityMixin) и эффект восстанавливается
+ * в следующем тике через TickTimingWheel. Открепление снимает эффект без восстановления.
+ * При сбросе эффектов и отключении игрока все закрепленные эффекты снимаются с сущности,
+ * чтобы бесконечные эффекты не сохранились в NBT.
+ * Методы нужно вызывать только из потока сервера.
+ */
+public final class PinnedEffects {
+    private static final String LOG_PREFIX = "[PinnedEffects] ";
+
+    // Задержка восстановления: снятие может прийти посреди обхода эффектов игрока
+    private static final long RENEW_DELAY_TICKS = 1;
+
+    private static final Pin[] NO_PINS = new Pin[0];
+
+    // Игроки с закрепленными эффектами; при сбросе эффектов закрепления снимаются
+    private static final EffectMembers PINNED_PLAYERS = new EffectMembers("pinned_effects", PinnedEffects::release);
+
+    private PinnedEffects() {
+    }
+
+    /**
+     * Закрепленный эффект игрока.
+     * @param effect тип эффекта
+     * @param amplifier уровень эффекта
+     */
+    public record Pin(RegistryEntry<StatusEffect> effect, int amplifier) {
+    }
+
+    /**
+     * Закрепляет эффект за игроком и накладывает его.
+     * @param player игрок
+     * @param effect тип эффекта
+     * @param amplifier уровень эффекта
+     */
+    public static void pin(ServerPlayerEntity player, RegistryEntry<StatusEffect> effect, int amplifier) {
+        PlayerState state = PlayerState.of(player);
+        Pin[] pins = PINNED_PLAYERS.add(player.getUuid()) ? NO_PINS : state.getPinnedEffects();
+
+        int existing = indexOf(pins, effect);
+        if (existing >= 0) {
+            pins = pins.clone();
+            pins[existing] = new Pin(effect, amplifier);
+        } else {
+            pins = Arrays.copyOf(pins, pins.length + 1);
+            pins[pins.length - 1] = new Pin(effect, amplifier);
+        }
+        state.setPinnedEffects(pins);
+
+        apply(player, pins[existing >= 0 ? existing : pins.length - 1]);
+    }
+
+    /**
+     * Открепляет эффект и снимает его с игрока.
+     * @param player игрок
+     * @param effect тип эффекта
+     */
+    public static void unpin(ServerPlayerEntity player, RegistryEntry<StatusEffect> effect) {
+        UUID uuid = player.getUuid();
+        PlayerState state = PlayerState.of(player);
+        Pin[] pins = PINNED_PLAYERS.contains(uuid) ? state.getPinnedEffects() : NO_PINS;
+
+        int index = indexOf(pins, effect);
+        if (index >= 0) {
+            Pin[] remaining = new Pin[pins.length - 1];
+            System.arraycopy(pins, 0, remaining, 0, index);
+            System.arraycopy(pins, index + 1, remaining, index, remaining.length - index);
+            state.setPinnedEffects(remaining);
+            if (remaining.length == 0) {
+                PINNED_PLAYERS.remove(uuid);
+            }
+        }
+
+        // Снятие уже не закрепленного эффекта не запускает восстановление
+        player.removeStatusEffect(effect);
+    }
+
+    /**
+     * Снимает все закрепленные эффекты игрока при сбросе эффектов или отключении.
+     * Игрок к этому моменту уже удален из списка, поэтому снятие не запускает восстановление.
+     * @param player игрок
+     */
+    private static void release(ServerPlayerEntity player) {
+        PlayerState state = PlayerState.of(player);
+        Pin[] pins = state.getPinnedEffects();
+        state.setPinnedEffects(NO_PINS);
+
+        TickTimingWheel.Timeout renewal = state.getPinRenewal();
+        if (renewal != null) {
+            renewal.cancel();
+            state.setPinRenewal(null);
+        }
+
+        for (Pin pin : pins) {
+            player.removeStatusEffect(pin.effect());
+        }
+    }
+
+    /**
+     * Обрабатывает снятие эффекта с игрока.
+     * Если эффект закреплен, планирует восстановление на следующий тик.
+     * @param player игрок
+     * @param effect снятый эффект
+     */
+    public static void onRemoved(ServerPlayerEntity player, StatusEffectInstance effect) {
+        UUID uuid = player.getUuid();
+        if (!PINNED_PLAYERS.contains(uuid)) {
+            return;
+        }
+
+        PlayerState state = PlayerState.of(player);
+        if (indexOf(state.getPinnedEffects(), effect.getEffectType()) < 0) {
+            return;
+        }
+
+        TickTimingWheel.Timeout renewal = state.getPinRenewal();
+        if (renewal != null && renewal.isPending()) {
+            return;
+        }
+
+        MinecraftServer server = player.getServer();
+        if (server == null) {
+            return;
+        }
+        state.setPinRenewal(TickTimingWheel.schedule(RENEW_DELAY_TICKS, () -> renew(server, uuid)));
+        EventMod.LOGGER.debug("{}Закрепленный эффект снят с игрока {}, восстановление запланировано",
+                LOG_PREFIX, player.getName().getString());
+    }
+
+    /**
+     * Восстанавливает снятые закрепленные эффекты игрока.
+     * @param server экземпляр сервера Minecraft
+     * @param uuid UUID игрока
+     */
+    private static void renew(MinecraftServer server, UUID uuid) {
+        ServerPlayerEntity player = server.getPlayerManager().getPlayer(uuid);
+        if (player == null || !PINNED_PLAYERS.contains(uuid)) {
+            return;
+        }
+
+        PlayerState state = PlayerState.of(player);
+        state.setPinRenewal(null);
+        for (Pin pin : state.getPinnedEffects()) {
+            if (!player.hasStatusEffect(pin.effect())) {
+                apply(player, pin);
+            }
+        }
+    }
+
+    /**
+     * Накладывает закрепленный эффект.
+     * @param player игрок
+     * @param pin закрепленный эффект
+     */
+    private static void apply(ServerPlayerEntity player, Pin pin) {
+        player.addStatusEffect(new StatusEffectInstance(
+                pin.effect(),
+                StatusEffectInstance.INFINITE,
+                pin.amplifier(),
+                false,
+                false
+        ));
+    }
+
+    private static int indexOf(Pin[] pins, RegistryEntry<StatusEffect> effect) {
+        for (int i = 0; i < pins.length; i++) {
+            if (pins[i].effect().equals(effect)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Получает статистику закрепленных эффектов.
+     * @return строка со статистикой
+     */
+    public static String getStats() {
+        return String.format("PinnedEffects Stats: Players=%d", PINNED_PLAYERS.size());
+    }
+}
@@ -1,77 +1,38 @@
 package ru.rebey.eventmod.effect;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.entity.effect.StatusEffectInstance;
 import net.minecraft.entity.effect.StatusEffects;
 import net.minecraft.server.network.ServerPlayerEntity;
-import net.minecraft.util.math.Vec3d;
 import ru.rebey.eventmod.EventMod;
+import ru.rebey.eventmod.data.PlayerState;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 
 /**
  * Эффект скрытности.
  * Делает игрока невидимым и замедленным после 3 секунд приседания.
  * После отпускания шифта дает ускорение на 5 секунд.
+ * Невидимость и замедление закрепляются (см. PinnedEffects) и не проверяются по тикам.
  */
 public class StealthEffect {
     private static final String LOG_PREFIX = "[StealthEffect] ";
 
-    // Время начала приседания для каждого игрока
-    private static final Map<UUID, Long> SNEAK_START_TICK = new HashMap<>();
-
-    // Флаг невидимости для каждого игрока
-    private static final Map<UUID, Boolean> IS_STEALTHED = new HashMap<>();
-
-    // Игроки с активным эффектом скрытности
-    private static final Set<UUID> AFFECTED_PLAYERS = new HashSet<>();
+    // Время начала приседания и флаг невидимости хранятся в PlayerState игрока
 
     // Время приседания для активации скрытности (3 секунды = 60 тиков)
     private static final long STEALTH_DURATION_TICKS = 60;
 
-    // Длительность эффектов при скрытности (10 секунд = 200 тиков)
-    private static final int EFFECT_DURATION = 200;
-
     // Длительность ускорения после скрытности (5 секунд = 100 тиков)
     private static final int SPEED_BOOST_DURATION = 100;
 
     // Уровень ускорения после скрытности (1 = Speed II = +40%)
     private static final int SPEED_BOOST_AMPLIFIER = 1;
 
-    static {
-        EventMod.LOGGER.info("{}Инициализация эффекта скрытности", LOG_PREFIX);
-
-        ServerTickEvents.END_SERVER_TICK.register(server -> {
-            try {
-                long currentTick = server.getTicks();
-                int checkedPlayers = 0;
-                int activatedStealth = 0;
-                int deactivatedStealth = 0;
-
-                for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
-                    if (isAffected(player)) {
-                        checkedPlayers++;
-                        updateStealth(player, currentTick, activatedStealth, deactivatedStealth);
-                    }
-                }
-
-                // Периодическое логирование статистики
-                if (currentTick % 6000 == 0) { // Каждые 5 минут
-                    EventMod.LOGGER.debug("{}Статистика: игроков проверено: {}, всего с эффектом: {}, в скрытности: {}",
-                            LOG_PREFIX, checkedPlayers, AFFECTED_PLAYERS.size(),
-                            IS_STEALTHED.values().stream().filter(v -> v).count());
-                }
-
-            } catch (Exception e) {
-                EventMod.LOGGER.error("{}Ошибка при обработке эффекта скрытности: {}",
-                        LOG_PREFIX, e.getMessage(), e);
-            }
-        });
+    // Игроки с активным эффектом скрытности (события приседания приходят от MovementTracker)
+    private static final EffectMembers AFFECTED_PLAYERS = new EffectMembers("stealth", StealthEffect::release);
 
+    static {
+        MovementTracker.subscribe(AFFECTED_PLAYERS, STEALTH_DURATION_TICKS, 0, new SneakListener());
         EventMod.LOGGER.info("{}Эффект скрытности инициализирован. Время до активации: {} тиков ({} секунд)",
                 LOG_PREFIX, STEALTH_DURATION_TICKS, STEALTH_DURATION_TICKS / 20);
     }
@@ -81,7 +42,7 @@ public class StealthEffect {
      * @param player игрок для проверки
      * @return true если эффект активен
      */
-    private static boolean isAffected(ServerPlayerEntity player) {
+    public static boolean isAffected(ServerPlayerEntity player) {
         return AFFECTED_PLAYERS.contains(player.getUuid());
     }
 
@@ -114,66 +75,36 @@ public class StealthEffect {
     }
 
     /**
-     * Обновляет состояние скрытности игрока.
-     * @param player игрок
-     * @param currentTick текущий тик сервера
-     * @param activatedStealth счетчик активаций скрытности
-     * @param deactivatedStealth счетчик деактиваций скрытности
+     * Обрабатывает события приседания участников эффекта.
      */
-    private static void updateStealth(ServerPlayerEntity player, long currentTick,
-                                      int activatedStealth, int deactivatedStealth) {
-        UUID uuid = player.getUuid();
-        String playerName = player.getName().getString();
-        boolean isSneaking = player.isSneaking();
-
-        if (isSneaking) {
-            // Игрок сидит на шифте
-            Long startTick = SNEAK_START_TICK.get(uuid);
-            if (startTick == null) {
-                SNEAK_START_TICK.put(uuid, currentTick);
-                startTick = currentTick;
-                EventMod.LOGGER.trace("{}Игрок {} начал приседание", LOG_PREFIX, playerName);
+    private static final class SneakListener implements MovementTracker.Listener {
+        @Override
+        public void onSneakStart(ServerPlayerEntity player, long currentTick) {
+            if (EventMod.LOGGER.isTraceEnabled()) {
+                EventMod.LOGGER.trace("{}Игрок {} начал приседание", LOG_PREFIX, player.getName().getString());
             }
+        }
 
+        @Override
+        public void onSneakHeld(ServerPlayerEntity player, long currentTick) {
             // Через 3 секунды — активируем невидимость
-            if (currentTick - startTick >= STEALTH_DURATION_TICKS && !IS_STEALTHED.getOrDefault(uuid, false)) {
+            PlayerState state = PlayerState.of(player);
+            if (!state.isStealthed()) {
                 activateStealth(player);
-                IS_STEALTHED.put(uuid, true);
-                activatedStealth++;
+                state.setStealthed(true);
             }
+        }
 
-            // Убедимся, что эффекты активны
-            if (IS_STEALTHED.getOrDefault(uuid, false)) {
-                // Slowness I = -15% скорости
-                if (!player.hasStatusEffect(StatusEffects.SLOWNESS)) {
-                    player.addStatusEffect(new StatusEffectInstance(
-                            StatusEffects.SLOWNESS,
-                            EFFECT_DURATION,
-                            0, // Slowness I
-                            false,
-                            false
-                    ));
-                }
-                // Invisibility = невидимость
-                if (!player.hasStatusEffect(StatusEffects.INVISIBILITY)) {
-                    player.addStatusEffect(new StatusEffectInstance(
-                            StatusEffects.INVISIBILITY,
-                            EFFECT_DURATION,
-                            0,
-                            false,
-                            false
-                    ));
-                }
-            }
-        } else {
-            // Игрок отпустил шифт
-            if (IS_STEALTHED.getOrDefault(uuid, false)) {
+        @Override
+        public void onSneakStop(ServerPlayerEntity player, long currentTick) {
+            PlayerState state = PlayerState.of(player);
+            if (state.isStealthed()) {
                 deactivateStealth(player);
-                IS_STEALTHED.put(uuid, false);
-                deactivatedStealth++;
+                state.setStealthed(false);
+            }
+            if (EventMod.LOGGER.isTraceEnabled()) {
+                EventMod.LOGGER.trace("{}Игрок {} прекратил приседание", LOG_PREFIX, player.getName().getString());
             }
-            SNEAK_START_TICK.remove(uuid);
-            EventMod.LOGGER.trace("{}Игрок {} прекратил приседание", LOG_PREFIX, playerName);
         }
     }
 
@@ -185,23 +116,10 @@ public class StealthEffect {
         String playerName = player.getName().getString();
 
         try {
-            player.addStatusEffect(new StatusEffectInstance(
-                    StatusEffects.INVISIBILITY,
-                    EFFECT_DURATION,
-                    0,
-                    false,
-                    false
-            ));
-            player.addStatusEffect(new StatusEffectInstance(
-                    StatusEffects.SLOWNESS,
-                    EFFECT_DURATION,
-                    0, // Slowness I
-                    false,
-                    false
-            ));
+            PinnedEffects.pin(player, StatusEffects.INVISIBILITY, 0);
+            PinnedEffects.pin(player, StatusEffects.SLOWNESS, 0); // Slowness I
 
-            EventMod.LOGGER.info("{}Скрытность активирована для игрока {} (длительность: {} секунд)",
-                    LOG_PREFIX, playerName, EFFECT_DURATION / 20);
+            EventMod.LOGGER.info("{}Скрытность активирована для игрока {}", LOG_PREFIX, playerName);
 
             // Отправляем уведомление игроку
             player.sendMessage(
@@ -223,8 +141,8 @@ public class StealthEffect {
         String playerName = player.getName().getString();
 
         try {
-            player.removeStatusEffect(StatusEffects.INVISIBILITY);
-            player.removeStatusEffect(StatusEffects.SLOWNESS);
+            PinnedEffects.unpin(player, StatusEffects.INVISIBILITY);
+            PinnedEffects.unpin(player, StatusEffects.SLOWNESS);
 
             // Добавляем Speed II на 5 секунд
             player.addStatusEffect(new StatusEffectInstance(
@@ -260,13 +178,12 @@ public class StealthEffect {
 
         if (AFFECTED_PLAYERS.remove(uuid)) {
             // Деактивируем скрытность если она активна
-            if (IS_STEALTHED.getOrDefault(uuid, false)) {
+            PlayerState state = PlayerState.of(player);
+            if (state.isStealthed()) {
                 deactivateStealth(player);
-                IS_STEALTHED.put(uuid, false);
+                state.setStealthed(false);
             }
 
-            SNEAK_START_TICK.remove(uuid);
-
             EventMod.LOGGER.info("{}Эффект скрытности снят с игрока {}. Осталось игроков: {}",
                     LOG_PREFIX, playerName, AFFECTED_PLAYERS.size());
 
@@ -279,13 +196,28 @@ public class StealthEffect {
         }
     }
 
+    /**
+     * Снимает скрытность без ускорения и сообщений при сбросе эффектов или отключении.
+     * @param player игрок
+     */
+    private static void release(ServerPlayerEntity player) {
+        PlayerState state = PlayerState.of(player);
+        if (state.isStealthed()) {
+            PinnedEffects.unpin(player, StatusEffects.INVISIBILITY);
+            PinnedEffects.unpin(player, StatusEffects.SLOWNESS);
+            state.setStealthed(false);
+        }
+        state.setSneakStartTick(PlayerState.NO_TICK);
+    }
+
     /**
      * Проверяет, находится ли игрок в состоянии скрытности.
      * @param player игрок для проверки
      * @return true если игрок невидим
      */
     public static boolean isStealthed(ServerPlayerEntity player) {
-        boolean isStealthed = IS_STEALTHED.getOrDefault(player.getUuid(), false);
+        PlayerState state = PlayerState.peek(player);
+        boolean isStealthed = state != null && state.isStealthed();
         EventMod.LOGGER.trace("{}Проверка скрытности игрока {}: {}",
                 LOG_PREFIX, player.getName().getString(), isStealthed);
         return isStealthed;
@@ -297,8 +229,9 @@ public class StealthEffect {
      * @return время приседания в тиках или 0 если не приседает
      */
     public static long getSneakTime(ServerPlayerEntity player) {
-        Long startTick = SNEAK_START_TICK.get(player.getUuid());
-        if (startTick == null) return 0;
+        PlayerState state = PlayerState.peek(player);
+        if (state == null || state.getSneakStartTick() == PlayerState.NO_TICK) return 0;
+        long startTick = state.getSneakStartTick();
 
         long currentTick = player.getServer().getTicks();
         long sneakTime = currentTick - startTick;
@@ -332,20 +265,11 @@ public class StealthEffect {
         return AFFECTED_PLAYERS.size();
     }
 
-    /**
-     * Получает количество игроков в состоянии скрытности.
-     * @return количество игроков
-     */
-    public static int getStealthedPlayerCount() {
-        return (int) IS_STEALTHED.values().stream().filter(v -> v).count();
-    }
-
     /**
      * Получает статистику эффекта.
      * @return строка со статистикой
      */
     public static String getStats() {
-        return String.format("Stealth Stats: AffectedPlayers=%d, Stealthed=%d",
-                AFFECTED_PLAYERS.size(), getStealthedPlayerCount());
+        return String.format("Stealth Stats: AffectedPlayers=%d", AFFECTED_PLAYERS.size());
     }
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package ru.rebey.eventmod.effect;
+
+import net.minecraft.entity.attribute.EntityAttributeModifier;
+import net.minecraft.entity.attribute.EntityAttributes;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Identifier;
+import ru.rebey.eventmod.EventMod;
+import ru.rebey.eventmod.card.CardRegistry;
+
+/**
+ * Эффект замедления танка.
+ * Снижает скорость передвижения (по умолчанию на 30%) через модификатор атрибута,
+ * поэтому игра учитывает его сама без проверок на каждом вызове getMovementSpeed.
+ */
+public class TankSlownessEffect implements CardEffect {
+    private static final String LOG_PREFIX = "[TankSlownessEffect] ";
+    private static final Identifier SPEED_MODIFIER_ID = Identifier.of("eventmod", "tank_slowness");
+
+    /**
+     * Применяет замедление танка.
+     * @param player игрок для применения эффекта
+     */
+    @Override
+    public void apply(ServerPlayerEntity player) {
+        String playerName = player.getName().getString();
+
+        try {
+            var speedAttr = player.getAttributeInstance(EntityAttributes.GENERIC_MOVEMENT_SPEED);
+            if (speedAttr == null) {
+                EventMod.LOGGER.error("{}Не удалось получить атрибут скорости у игрока {}",
+                        LOG_PREFIX, playerName);
+                return;
+            }
+
+            // Удаляем старый модификатор (на случай повторного применения)
+            speedAttr.removeModifier(SPEED_MODIFIER_ID);
+
+            // Параметр эффекта - итоговый множитель скорости (0.7 = -30%)
+            double speedMultiplier = CardRegistry.getEffectValue(EffectType.TANK_SLOWNESS);
+
+            // Временный модификатор не сохраняется в NBT: эффекты карточек
+            // живут только в состоянии игрока и восстанавливаются модом
+            speedAttr.addTemporaryModifier(new EntityAttributeModifier(
+                    SPEED_MODIFIER_ID,
+                    speedMultiplier - 1.0,
+                    EntityAttributeModifier.Operation.ADD_MULTIPLIED_TOTAL
+            ));
+
+            EventMod.LOGGER.info("{}Активировано замедление танка (x{}) для игрока {}",
+                    LOG_PREFIX, speedMultiplier, playerName);
+        } catch (Exception e) {
+            EventMod.LOGGER.error("{}Ошибка при применении замедления танка для игрока {}: {}",
+                    LOG_PREFIX, playerName, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Снимает замедление танка.
+     * @param player игрок для удаления эффекта
+     */
+    public static void remove(ServerPlayerEntity player) {
+        var speedAttr = player.getAttributeInstance(EntityAttributes.GENERIC_MOVEMENT_SPEED);
+        if (speedAttr != null && speedAttr.removeModifier(SPEED_MODIFIER_ID)) {
+            EventMod.LOGGER.info("{}Замедление танка снято с игрока {}",
+                    LOG_PREFIX, player.getName().getString());
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package ru.rebey.eventmod.effect;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.MinecraftServer;
+import ru.rebey.eventmod.EventMod;
+
+/**
+ * Хешированное колесо таймеров на тиках сервера.
+ * Все отложенные действия и истечения мода проходят через него: добавление и отмена за O(1),
+ * а в каждом тике обрабатывается только одна корзина колеса. Действия выполняются
+ * в потоке сервера в конце тика, поэтому могут свободно менять состояние игры.
+ * Методы колеса нужно вызывать только из потока сервера.
+ */
+public final class TickTimingWheel {
+    private static final String LOG_PREFIX = "[TickTimingWheel] ";
+
+    // Размер колеса (степень двойки); более дальние таймеры проходят колесо несколько раз
+    private static final int WHEEL_SIZE = 512;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private static final Timeout[] BUCKETS = new Timeout[WHEEL_SIZE];
+
+    // Собственный счетчик тиков колеса (не зависит от счетчика тиков сервера)
+    private static long now;
+    private static int pending;
+
+    static {
+        EventMod.LOGGER.info("{}Инициализация колеса таймеров ({} корзин)", LOG_PREFIX, WHEEL_SIZE);
+        ServerTickEvents.END_SERVER_TICK.register(TickTimingWheel::onEndTick);
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> clear());
+    }
+
+    private TickTimingWheel() {
+    }
+
+    /**
+     * Запланированное действие.
+     * Хранится в двусвязном списке своей корзины, поэтому отменяется за O(1).
+     */
+    public static final class Timeout {
+        private final long deadline;
+        private final Runnable action;
+        private final int bucket;
+        private Timeout prev;
+        private Timeout next;
+        // Следующий в списке наступивших действий текущего тика
+        private Timeout nextDue;
+        private boolean inBucket;
+        private boolean pendingRun;
+
+        private Timeout(long deadline, Runnable action) {
+            this.deadline = deadline;
+            this.action = action;
+            this.bucket = (int) (deadline & WHEEL_MASK);
+        }
+
+        /**
+         * Получает тик колеса, в конце которого сработает действие.
+         * @return тик срабатывания
+         */
+        public long deadline() {
+            return deadline;
+        }
+
+        /**
+         * Проверяет, ожидает ли действие срабатывания.
+         * @return true если действие еще не выполнено и не отменено
+         */
+        public boolean isPending() {
+            return pendingRun;
+        }
+
+        /**
+         * Отменяет действие.
+         * @return true если действие было отменено, false если оно уже выполнено или отменено
+         */
+        public boolean cancel() {
+            if (!pendingRun) {
+                return false;
+            }
+            if (inBucket) {
+                unlink(this);
+            }
+            pendingRun = false;
+            pending--;
+            return true;
+        }
+    }
+
+    /**
+     * Планирует действие через заданное количество тиков.
+     * Действие выполняется в конце delayTicks-го по счету тика после текущего момента.
+     * @param delayTicks задержка в тиках (не меньше 1)
+     * @param action действие
+     * @return дескриптор для отмены
+     */
+    public static Timeout schedule(long delayTicks, Runnable action) {
+        if (delayTicks < 1) {
+            throw new IllegalArgumentException("Задержка должна быть не меньше 1 тика: " + delayTicks);
+        }
+
+        Timeout timeout = new Timeout(now + delayTicks, action);
+        link(timeout);
+        return timeout;
+    }
+
+    /**
+     * Сдвигает колесо на один тик и выполняет наступившие действия.
+     * @param server экземпляр сервера Minecraft
+     */
+    private static void onEndTick(MinecraftServer server) {
+        now++;
+        if (pending > 0) {
+            expireBucket(now);
+        }
+    }
+
+    /**
+     * Выполняет действия корзины, срок которых наступил.
+     * Таймеры с более поздним сроком остаются до следующего оборота.
+     * Наступившие действия сначала снимаются с корзины, поэтому действие может
+     * безопасно планировать новые таймеры или отменять другие.
+     * @param tick обрабатываемый тик
+     */
+    private static void expireBucket(long tick) {
+        Timeout due = null;
+        Timeout timeout = BUCKETS[(int) (tick & WHEEL_MASK)];
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.deadline <= tick) {
+                unlink(timeout);
+                timeout.nextDue = due;
+                due = timeout;
+            }
+            timeout = next;
+        }
+
+        while (due != null) {
+            Timeout current = due;
+            due = current.nextDue;
+            current.nextDue = null;
+
+            // Действие могло быть отменено предыдущим действием этого же тика
+            if (!current.pendingRun) {
+                continue;
+            }
+            current.pendingRun = false;
+            pending--;
+
+            try {
+                current.action.run();
+            } catch (Exception e) {
+                EventMod.LOGGER.error("{}Ошибка при выполнении отложенного действия: {}",
+                        LOG_PREFIX, e.getMessage(), e);
+            }
+        }
+    }
+
+    private static void link(Timeout timeout) {
+        Timeout head = BUCKETS[timeout.bucket];
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        BUCKETS[timeout.bucket] = timeout;
+        timeout.inBucket = true;
+        timeout.pendingRun = true;
+        pending++;
+    }
+
+    private static void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            BUCKETS[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.inBucket = false;
+    }
+
+    /**
+     * Отменяет все действия (при остановке сервера).
+     */
+    private static void clear() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            Timeout timeout = BUCKETS[i];
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                timeout.prev = null;
+                timeout.next = null;
+                timeout.inBucket = false;
+                timeout.pendingRun = false;
+                timeout = next;
+            }
+            BUCKETS[i] = null;
+        }
+
+        EventMod.LOGGER.info("{}Колесо таймеров очищено. Отменено действий: {}", LOG_PREFIX, pending);
+        pending = 0;
+    }
+
+    /**
+     * Получает количество ожидающих действий.
+     * @return количество действий
+     */
+    public static int getPendingCount() {
+        return pending;
+    }
+
+    /**
+     * Получает статистику колеса.
+     * @return строка со статистикой
+     */
+    public static String getStats() {
+        return String.format("TickTimingWheel Stats: Pending=%d, Tick=%d", pending, now);
+    }
+}
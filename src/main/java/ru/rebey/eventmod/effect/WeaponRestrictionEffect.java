@@ -1,11 +1,17 @@
 package ru.rebey.eventmod.effect;
 
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
+import net.minecraft.entity.EquipmentSlot;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.registry.tag.TagKey;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
-import net.minecraft.item.ItemStack;
-import net.minecraft.item.Items;
+import net.minecraft.util.Identifier;
 import ru.rebey.eventmod.EventMod;
 
 import java.util.HashSet;
@@ -15,108 +21,95 @@ import java.util.UUID;
 /**
  * Эффект ограничения оружия.
  * Разрешает игрокам использовать только кирки в качестве оружия.
+ * Запрещенное и разрешенное оружие задается тегами предметов eventmod:restricted_weapons
+ * и eventmod:allowed_weapons, которые при загрузке тегов сводятся в таблицу по ID предмета.
+ * Предмет проверяется в момент попадания в руку (см. EquipmentWatcher).
  */
 public class WeaponRestrictionEffect {
     private static final String LOG_PREFIX = "[WeaponRestrictionEffect] ";
 
-    private static final Set<UUID> RESTRICTED_PLAYERS = new HashSet<>();
-    private static final int CHECK_INTERVAL = 20; // каждые 20 тиков = 1 секунда
+    // Теги оружия: запрещено все из restricted_weapons, кроме предметов из allowed_weapons
+    public static final TagKey<Item> ALLOWED_WEAPONS_TAG =
+            TagKey.of(RegistryKeys.ITEM, Identifier.of(EventMod.MOD_ID, "allowed_weapons"));
+    public static final TagKey<Item> RESTRICTED_WEAPONS_TAG =
+            TagKey.of(RegistryKeys.ITEM, Identifier.of(EventMod.MOD_ID, "restricted_weapons"));
+
+    // Запрещенные предметы по сырому ID предмета; пересобирается при загрузке тегов
+    private static volatile boolean[] forbiddenById = new boolean[0];
+    private static int forbiddenCount;
 
-    // Разрешенные предметы (только кирки)
-    private static final Set<net.minecraft.item.Item> ALLOWED_WEAPONS = new HashSet<>();
+    // Игроки с ограничением оружия (проверяются при смене предмета в руке)
+    private static final EquipmentWatcher.Watch WATCH = EquipmentWatcher.register(
+            "weapon_restriction", EquipmentSlot.Type.HAND, WeaponRestrictionEffect::checkAndDropWeapon);
+    private static final EffectMembers RESTRICTED_PLAYERS = WATCH.members();
 
     static {
         EventMod.LOGGER.info("{}Инициализация эффекта ограничения оружия", LOG_PREFIX);
 
-        // Инициализируем список разрешенных предметов
-        initializeAllowedWeapons();
-
-        // Регистрируем тиковый обработчик
-        ServerTickEvents.END_SERVER_TICK.register(server -> {
-            if (server.getTicks() % CHECK_INTERVAL != 0) return;
-
-            try {
-                int checkedPlayers = 0;
-                int droppedItems = 0;
-
-                for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
-                    if (RESTRICTED_PLAYERS.contains(player.getUuid())) {
-                        checkedPlayers++;
-                        droppedItems += checkAndDropWeapon(player);
-                    }
-                }
-
-                if (droppedItems > 0) {
-                    EventMod.LOGGER.debug("{}Проверено игроков: {}, выброшено предметов: {}",
-                            LOG_PREFIX, checkedPlayers, droppedItems);
-                }
+        EventMod.LOGGER.info("{}Эффект ограничения оружия инициализирован. Проверка при смене предмета в руке",
+                LOG_PREFIX);
+    }
 
-            } catch (Exception e) {
-                EventMod.LOGGER.error("{}Ошибка при проверке ограничения оружия: {}",
-                        LOG_PREFIX, e.getMessage(), e);
+    /**
+     * Регистрирует пересборку таблицы оружия при загрузке тегов (запуск сервера и /reload).
+     */
+    public static void register() {
+        CommonLifecycleEvents.TAGS_LOADED.register((registries, client) -> {
+            if (!client) {
+                rebuildWeaponTable();
             }
         });
-
-        EventMod.LOGGER.info("{}Эффект ограничения оружия инициализирован. Проверка каждые {} тиков",
-                LOG_PREFIX, CHECK_INTERVAL);
+        EventMod.LOGGER.info("{}Таблица оружия будет построена при загрузке тегов", LOG_PREFIX);
     }
 
     /**
-     * Инициализирует список разрешенных предметов.
+     * Пересобирает таблицу запрещенных предметов по тегам.
      */
-    private static void initializeAllowedWeapons() {
-        // Разрешаем все кирки
-        ALLOWED_WEAPONS.add(Items.WOODEN_PICKAXE);
-        ALLOWED_WEAPONS.add(Items.STONE_PICKAXE);
-        ALLOWED_WEAPONS.add(Items.IRON_PICKAXE);
-        ALLOWED_WEAPONS.add(Items.GOLDEN_PICKAXE);
-        ALLOWED_WEAPONS.add(Items.DIAMOND_PICKAXE);
-        ALLOWED_WEAPONS.add(Items.NETHERITE_PICKAXE);
-
-        EventMod.LOGGER.debug("{}Инициализировано {} разрешенных предметов",
-                LOG_PREFIX, ALLOWED_WEAPONS.size());
+    private static void rebuildWeaponTable() {
+        boolean[] forbidden = new boolean[Registries.ITEM.size()];
+        int count = 0;
+
+        for (RegistryEntry<Item> entry : Registries.ITEM.iterateEntries(RESTRICTED_WEAPONS_TAG)) {
+            if (entry.isIn(ALLOWED_WEAPONS_TAG)) {
+                continue;
+            }
+            int rawId = Registries.ITEM.getRawId(entry.value());
+            if (!forbidden[rawId]) {
+                forbidden[rawId] = true;
+                count++;
+            }
+        }
+
+        forbiddenById = forbidden;
+        forbiddenCount = count;
+        EventMod.LOGGER.info("{}Таблица оружия построена: запрещено {} предметов", LOG_PREFIX, count);
     }
 
     /**
-     * Проверяет и выбрасывает запрещенное оружие у игрока.
+     * Проверяет предмет, попавший в руку игрока, и выбрасывает его, если он запрещен.
      * @param player игрок для проверки
-     * @return количество выброшенных предметов
+     * @param slot слот руки
+     * @param stack новый предмет в руке
      */
-    private static int checkAndDropWeapon(ServerPlayerEntity player) {
-        int droppedCount = 0;
-        String playerName = player.getName().getString();
-
-        // Проверяем обе руки
-        for (net.minecraft.util.Hand hand : net.minecraft.util.Hand.values()) {
-            ItemStack stack = player.getStackInHand(hand);
-            if (!stack.isEmpty() && !isAllowedWeapon(stack)) {
-                try {
-                    // Выбрасываем предмет
-                    player.dropItem(stack, true, true);
-                    player.setStackInHand(hand, ItemStack.EMPTY);
-                    droppedCount++;
+    private static void checkAndDropWeapon(ServerPlayerEntity player, EquipmentSlot slot, ItemStack stack) {
+        if (isAllowedWeapon(stack)) {
+            return;
+        }
 
-                    EventMod.LOGGER.info("{}Выброшено запрещенное оружие у игрока {}: {} в руке {}",
-                            LOG_PREFIX, playerName, stack.getItem().getName().getString(),
-                            hand == net.minecraft.util.Hand.MAIN_HAND ? "основной" : "второстепенной");
+        String playerName = player.getName().getString();
 
-                } catch (Exception e) {
-                    EventMod.LOGGER.error("{}Ошибка при выбросе оружия у игрока {}: {}",
-                            LOG_PREFIX, playerName, e.getMessage(), e);
-                }
-            }
-        }
+        // Выбрасываем предмет
+        player.dropItem(stack, true, true);
+        player.equipStack(slot, ItemStack.EMPTY);
 
-        if (droppedCount > 0) {
-            player.sendMessage(
-                    Text.literal("❌ Запрещённое оружие выброшено!").formatted(Formatting.RED),
-                    true
-            );
-            EventMod.LOGGER.debug("{}Игроку {} отправлено предупреждение о выбросе оружия",
-                    LOG_PREFIX, playerName);
-        }
+        EventMod.LOGGER.info("{}Выброшено запрещенное оружие у игрока {}: {} в руке {}",
+                LOG_PREFIX, playerName, stack.getItem().getName().getString(),
+                slot == EquipmentSlot.MAINHAND ? "основной" : "второстепенной");
 
-        return droppedCount;
+        player.sendMessage(
+                Text.literal("❌ Запрещённое оружие выброшено!").formatted(Formatting.RED),
+                true
+        );
     }
 
     /**
@@ -125,28 +118,9 @@ public class WeaponRestrictionEffect {
      * @return true если предмет разрешен
      */
     private static boolean isAllowedWeapon(ItemStack stack) {
-        // Если это НЕ оружие — разрешено
-        if (!isWeapon(stack)) {
-            return true;
-        }
-
-        // Если это оружие — разрешены ТОЛЬКО кирки
-        return ALLOWED_WEAPONS.contains(stack.getItem());
-    }
-
-    /**
-     * Проверяет, является ли предмет оружием.
-     * @param stack предмет для проверки
-     * @return true если предмет считается оружием
-     */
-    private static boolean isWeapon(ItemStack stack) {
-        // Определяем, является ли предмет оружием по типу предмета
-        return stack.getItem() instanceof net.minecraft.item.SwordItem ||
-                stack.getItem() instanceof net.minecraft.item.AxeItem ||
-                stack.getItem() instanceof net.minecraft.item.BowItem ||
-                stack.getItem() instanceof net.minecraft.item.CrossbowItem ||
-                stack.getItem() instanceof net.minecraft.item.TridentItem ||
-                stack.isOf(Items.FISHING_ROD);
+        boolean[] forbidden = forbiddenById;
+        int rawId = Registries.ITEM.getRawId(stack.getItem());
+        return rawId >= forbidden.length || !forbidden[rawId];
     }
 
     /**
@@ -279,10 +253,14 @@ public class WeaponRestrictionEffect {
 
     /**
      * Получает список разрешенных предметов.
-     * @return множество разрешенных предметов
+     * @return множество предметов из тега разрешенного оружия
      */
-    public static Set<net.minecraft.item.Item> getAllowedWeapons() {
-        return new HashSet<>(ALLOWED_WEAPONS);
+    public static Set<Item> getAllowedWeapons() {
+        Set<Item> allowed = new HashSet<>();
+        for (RegistryEntry<Item> entry : Registries.ITEM.iterateEntries(ALLOWED_WEAPONS_TAG)) {
+            allowed.add(entry.value());
+        }
+        return allowed;
     }
 
     /**
@@ -290,7 +268,7 @@ public class WeaponRestrictionEffect {
      * @return строка со статистикой
      */
     public static String getStats() {
-        return String.format("WeaponRestriction Stats: AffectedPlayers=%d, AllowedWeapons=%d",
-                RESTRICTED_PLAYERS.size(), ALLOWED_WEAPONS.size());
+        return String.format("WeaponRestriction Stats: AffectedPlayers=%d, ForbiddenItems=%d",
+                RESTRICTED_PLAYERS.size(), forbiddenCount);
     }
 }
\ No newline at end of file
@@ -10,6 +10,7 @@ import net.minecraft.util.Formatting;
 import ru.rebey.eventmod.EventMod;
 import ru.rebey.eventmod.data.ClientPlayerList;
 import ru.rebey.eventmod.network.SyncAllPlayersPayload;
+import ru.rebey.eventmod.team.PlayerTeam;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -59,13 +60,10 @@ public class PlayerListHudRenderer {
             List<SyncAllPlayersPayload.PlayerInfo> noTeam = new ArrayList<>();
 
             for (var info : players) {
-                String team = info.teamName();
-                if ("RED".equals(team)) {
-                    redTeam.add(info);
-                } else if ("BLUE".equals(team)) {
-                    blueTeam.add(info);
-                } else {
-                    noTeam.add(info);
+                switch (info.team()) {
+                    case RED -> redTeam.add(info);
+                    case BLUE -> blueTeam.add(info);
+                    default -> noTeam.add(info);
                 }
             }
 
@@ -185,7 +183,7 @@ public class PlayerListHudRenderer {
         for (int i = 0; i < players.size(); i++) {
             var info = players.get(i);
             String name = info.name(); // только имя, без иконок
-            int color = getPlayerColor(info.teamName());
+            int color = getPlayerColor(info.team());
             int textY = startY + i * itemHeight;
 
             context.drawText(tr, Text.literal(name), startX, textY, color, false);
@@ -197,21 +195,11 @@ public class PlayerListHudRenderer {
 
     /**
      * Получает цвет игрока на основе его команды.
-     * @param teamName название команды
+     * @param team команда игрока
      * @return цвет в формате RGB
      */
-    private static int getPlayerColor(String teamName) {
-        switch (teamName) {
-            case "RED":
-                EventMod.LOGGER.trace("{}Цвет для команды RED: 0xFF5555", LOG_PREFIX);
-                return 0xFF5555;   // красный
-            case "BLUE":
-                EventMod.LOGGER.trace("{}Цвет для команды BLUE: 0x5555FF", LOG_PREFIX);
-                return 0x5555FF;  // синий
-            default:
-                EventMod.LOGGER.trace("{}Цвет для команды без названия: 0xFFFFFF", LOG_PREFIX);
-                return 0xFFFFFF;      // белый
-        }
+    private static int getPlayerColor(PlayerTeam team) {
+        return team.getColorRGB();
     }
 
     /**
@@ -239,9 +227,9 @@ public class PlayerListHudRenderer {
      */
     public static String getTeamStats() {
         var players = ClientPlayerList.getPlayers();
-        long redCount = players.stream().filter(p -> "RED".equals(p.teamName())).count();
-        long blueCount = players.stream().filter(p -> "BLUE".equals(p.teamName())).count();
-        long noTeamCount = players.stream().filter(p -> !"RED".equals(p.teamName()) && !"BLUE".equals(p.teamName())).count();
+        long redCount = players.stream().filter(p -> p.team() == PlayerTeam.RED).count();
+        long blueCount = players.stream().filter(p -> p.team() == PlayerTeam.BLUE).count();
+        long noTeamCount = players.stream().filter(p -> !p.team().isGameTeam()).count();
 
         return String.format("Teams: RED=%d, BLUE=%d, NONE=%d", redCount, blueCount, noTeamCount);
     }
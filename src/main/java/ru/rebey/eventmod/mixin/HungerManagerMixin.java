@@ -0,0 +1,48 @@
+package ru.rebey.eventmod.mixin;
+
+import com.llamalad7.mixinextras.sugar.Local;
+import net.minecraft.entity.player.HungerManager;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.ModifyArg;
+import ru.rebey.eventmod.card.CardRegistry;
+import ru.rebey.eventmod.data.PlayerState;
+import ru.rebey.eventmod.effect.EffectType;
+
+/**
+ * Mixin для ускоренного расхода голода при регенерации.
+ * Естественная регенерация в HungerManager.update начисляет истощение напрямую,
+ * минуя PlayerEntity#addExhaustion (см. PlayerEntityExhaustionMixin), поэтому
+ * эффект HUNGER_DRAIN применяется к этим вызовам отдельно.
+ */
+@Mixin(HungerManager.class)
+public abstract class HungerManagerMixin {
+
+    /**
+     * Умножает истощение от регенерации игрока с эффектом быстрого голода.
+     * @param exhaustion исходное истощение
+     * @param player игрок, для которого обновляется голод
+     * @return итоговое истощение
+     */
+    @ModifyArg(
+            method = "update",
+            at = @At(
+                    value = "INVOKE",
+                    target = "Lnet/minecraft/entity/player/HungerManager;addExhaustion(F)V"
+            )
+    )
+    private float eventmod$scaleRegenExhaustion(float exhaustion, @Local(argsOnly = true) PlayerEntity player) {
+        if (!(player instanceof ServerPlayerEntity serverPlayer)) {
+            return exhaustion;
+        }
+
+        PlayerState state = PlayerState.peek(serverPlayer);
+        if (state == null || !EffectType.HUNGER_DRAIN.isIn(state.getEffectMask())) {
+            return exhaustion;
+        }
+
+        return exhaustion * (float) CardRegistry.getEffectValue(EffectType.HUNGER_DRAIN);
+    }
+}
@@ -0,0 +1,81 @@
+package ru.rebey.eventmod.mixin;
+
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.damage.DamageSource;
+import net.minecraft.registry.tag.DamageTypeTags;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.ModifyVariable;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import ru.rebey.eventmod.EventMod;
+import ru.rebey.eventmod.data.PlayerState;
+import ru.rebey.eventmod.effect.AttackModifiers;
+import ru.rebey.eventmod.effect.FireInventoryDestructionEffect;
+
+/**
+ * Mixin единой обработки урона.
+ * Эффекты атаки работают только между игроками, поэтому для мобов обработчик
+ * завершается первой же проверкой. Для игроков применяется заранее собранная
+ * цепочка модификаторов атакующего (см. AttackModifiers).
+ * Полученный игроком урон огнем передается FireInventoryDestructionEffect.
+ */
+@Mixin(LivingEntity.class)
+public abstract class LivingEntityDamageMixin {
+    private static final String LOG_PREFIX = "[LivingEntityDamageMixin] ";
+
+    /**
+     * Применяет модификаторы атаки игрока к урону.
+     * @param amount исходный урон
+     * @param source источник урона
+     * @return модифицированный урон
+     */
+    @ModifyVariable(
+            method = "damage",
+            at = @At("HEAD"),
+            argsOnly = true
+    )
+    private float eventmod$modifyDamage(float amount, DamageSource source) {
+        if (!((Object) this instanceof ServerPlayerEntity target)
+                || !(source.getAttacker() instanceof ServerPlayerEntity attacker)) {
+            return amount;
+        }
+
+        PlayerState state = PlayerState.peek(attacker);
+        int modifiers = state != null ? state.getAttackModifiers() : 0;
+        if (modifiers == 0) {
+            return amount;
+        }
+
+        try {
+            return AttackModifiers.apply(modifiers, attacker, target, amount);
+        } catch (Exception e) {
+            EventMod.LOGGER.error("{}Ошибка при применении модификаторов атаки: {}",
+                    LOG_PREFIX, e.getMessage(), e);
+            return amount;
+        }
+    }
+
+    /**
+     * Передает урон огнем или лавой, полученный игроком, эффекту уничтожения инвентаря.
+     * @param source источник урона
+     * @param amount урон
+     * @param cir результат: был ли урон нанесен
+     */
+    @Inject(method = "damage", at = @At("RETURN"))
+    private void eventmod$onDamaged(DamageSource source, float amount, CallbackInfoReturnable<Boolean> cir) {
+        if (!cir.getReturnValueZ()
+                || !((Object) this instanceof ServerPlayerEntity target)
+                || !source.isIn(DamageTypeTags.IS_FIRE)) {
+            return;
+        }
+
+        try {
+            FireInventoryDestructionEffect.onFireDamage(target);
+        } catch (Exception e) {
+            EventMod.LOGGER.error("{}Ошибка при обработке урона огнем: {}",
+                    LOG_PREFIX, e.getMessage(), e);
+        }
+    }
+}
@@ -6,6 +6,8 @@ import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.ModifyVariable;
 import ru.rebey.eventmod.EventMod;
+import ru.rebey.eventmod.card.CardRegistry;
+import ru.rebey.eventmod.effect.EffectType;
 
 /**
  * Mixin для модификации урона от падения.
@@ -34,17 +36,13 @@ public abstract class LivingEntityFallMixin {
             if (self instanceof ServerPlayerEntity player &&
                     ru.rebey.eventmod.data.PlayerDataHandler.hasFallDamageReduction(player)) {
 
-                float modifiedDistance = fallDistance * 0.5f; // Уменьшаем дистанцию падения в 2 раза
+                // Уменьшаем дистанцию падения (по умолчанию в 2 раза)
+                float modifiedDistance = fallDistance * (float) CardRegistry.getEffectValue(EffectType.FALL_DAMAGE_REDUCTION);
 
-                EventMod.LOGGER.info("{}Уменьшение урона от падения для игрока {}: дистанция {} -> {} (-50%)",
+                EventMod.LOGGER.debug("{}Уменьшение урона от падения для игрока {}: дистанция {} -> {}",
                         LOG_PREFIX, player.getName().getString(), fallDistance, modifiedDistance);
-                EventMod.LOGGER.debug("{}  Игрок: {}, Эффект: снижение урона от падения",
-                        LOG_PREFIX, player.getName().getString());
 
                 return modifiedDistance;
-            } else {
-                EventMod.LOGGER.trace("{}Без изменений: {} (не игрок или нет эффекта)",
-                        LOG_PREFIX, fallDistance);
             }
 
         } catch (Exception e) {
@@ -64,7 +62,7 @@ public abstract class LivingEntityFallMixin {
         EventMod.LOGGER.debug("{}  Игрок: {}", LOG_PREFIX, player.getName().getString());
         EventMod.LOGGER.debug("{}  Исходная дистанция: {}", LOG_PREFIX, originalDistance);
         EventMod.LOGGER.debug("{}  Модифицированная дистанция: {}", LOG_PREFIX, modifiedDistance);
-        EventMod.LOGGER.debug("{}  Множитель: 0.5x (уменьшение на 50%)", LOG_PREFIX);
+        EventMod.LOGGER.debug("{}  Множитель: {}x", LOG_PREFIX, CardRegistry.getEffectValue(EffectType.FALL_DAMAGE_REDUCTION));
         EventMod.LOGGER.debug("{}  Позиция игрока: x={}, y={}, z={}",
                 LOG_PREFIX, player.getX(), player.getY(), player.getZ());
     }
@@ -0,0 +1,39 @@
+package ru.rebey.eventmod.mixin;
+
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import ru.rebey.eventmod.EventMod;
+import ru.rebey.eventmod.effect.EmergencyRegenEffect;
+
+/**
+ * Mixin изменения здоровья.
+ * Через setHealth проходят урон, лечение и прямое изменение здоровья, поэтому эффекты,
+ * зависящие от здоровья, реагируют здесь, а не проверяют игроков каждый тик.
+ */
+@Mixin(LivingEntity.class)
+public abstract class LivingEntityHealthMixin {
+    private static final String LOG_PREFIX = "[LivingEntityHealthMixin] ";
+
+    /**
+     * Передает новое здоровье игрока эффектам.
+     * @param health новое здоровье
+     * @param ci callback информация
+     */
+    @Inject(method = "setHealth", at = @At("TAIL"))
+    private void eventmod$onHealthChanged(float health, CallbackInfo ci) {
+        if (!((Object) this instanceof ServerPlayerEntity player)) {
+            return;
+        }
+
+        try {
+            EmergencyRegenEffect.onHealthChanged(player);
+        } catch (Exception e) {
+            EventMod.LOGGER.error("{}Ошибка при обработке изменения здоровья: {}",
+                    LOG_PREFIX, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ru.rebey.eventmod.mixin;
+
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.ModifyVariable;
+import ru.rebey.eventmod.card.CardRegistry;
+import ru.rebey.eventmod.data.PlayerState;
+import ru.rebey.eventmod.effect.EffectType;
+
+/**
+ * Mixin для ускоренного расхода голода.
+ * Эффект HUNGER_DRAIN умножает истощение игрока от действий (бег, прыжки, атаки),
+ * поэтому отдельная проверка игроков по тикам не нужна: игроки без эффекта
+ * платят только за чтение маски эффектов при начислении истощения.
+ * Истощение от регенерации обходит этот метод и умножается в HungerManagerMixin.
+ */
+@Mixin(PlayerEntity.class)
+public abstract class PlayerEntityExhaustionMixin {
+
+    /**
+     * Умножает истощение игрока с эффектом быстрого голода.
+     * @param exhaustion исходное истощение
+     * @return итоговое истощение
+     */
+    @ModifyVariable(
+            method = "addExhaustion",
+            at = @At("HEAD"),
+            argsOnly = true
+    )
+    private float eventmod$scaleExhaustion(float exhaustion) {
+        if (!((Object) this instanceof ServerPlayerEntity player)) {
+            return exhaustion;
+        }
+
+        PlayerState state = PlayerState.peek(player);
+        if (state == null || !EffectType.HUNGER_DRAIN.isIn(state.getEffectMask())) {
+            return exhaustion;
+        }
+
+        return exhaustion * (float) CardRegistry.getEffectValue(EffectType.HUNGER_DRAIN);
+    }
+}
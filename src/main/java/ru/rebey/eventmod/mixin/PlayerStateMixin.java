@@ -0,0 +1,38 @@
+package ru.rebey.eventmod.mixin;
+
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import ru.rebey.eventmod.data.PlayerState;
+import ru.rebey.eventmod.data.PlayerStateHolder;
+
+/**
+ * Mixin для хранения состояния мода прямо в сущности игрока.
+ * Состояние создается лениво при первом обращении.
+ */
+@Mixin(ServerPlayerEntity.class)
+public abstract class PlayerStateMixin implements PlayerStateHolder {
+
+    @Unique
+    private PlayerState eventmod$state;
+
+    @Override
+    public PlayerState eventmod$getState() {
+        PlayerState state = this.eventmod$state;
+        if (state == null) {
+            state = new PlayerState();
+            this.eventmod$state = state;
+        }
+        return state;
+    }
+
+    @Override
+    public PlayerState eventmod$peekState() {
+        return this.eventmod$state;
+    }
+
+    @Override
+    public void eventmod$setState(PlayerState state) {
+        this.eventmod$state = state;
+    }
+}
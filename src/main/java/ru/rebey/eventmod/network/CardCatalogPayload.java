@@ -0,0 +1,87 @@
+package ru.rebey.eventmod.network;
+
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.codec.PacketCodecs;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.text.Text;
+import net.minecraft.text.TextCodecs;
+import net.minecraft.util.Identifier;
+import ru.rebey.eventmod.EventMod;
+
+import java.util.List;
+
+/**
+ * Пакет с каталогом карточек.
+ * При подключении сервер отправляет только хеш каталога (full = false); клиент,
+ * у которого каталог с таким хешем уже есть, ничего не загружает, иначе запрашивает
+ * полный каталог пакетом RequestCardCatalogPayload. Предложения карточек
+ * ссылаются на номера карточек в этом каталоге.
+ * @param hash хеш содержимого каталога
+ * @param full true если пакет содержит карточки
+ * @param cards карточки в порядке номеров (пусто, если full = false)
+ */
+public record CardCatalogPayload(int hash, boolean full, List<Entry> cards) implements CustomPayload {
+    private static final String LOG_PREFIX = "[CardCatalogPayload] ";
+
+    public static final Id<CardCatalogPayload> ID = new Id<>(Identifier.of(EventMod.MOD_ID, "card_catalog"));
+
+    /**
+     * Карточка каталога.
+     * @param id ID карточки
+     * @param name название
+     * @param buffDescription описание баффа
+     * @param debuffDescription описание дебаффа
+     */
+    public record Entry(String id, Text name, Text buffDescription, Text debuffDescription) {
+        public static final PacketCodec<RegistryByteBuf, Entry> CODEC = PacketCodec.tuple(
+                PacketCodecs.STRING, Entry::id,
+                TextCodecs.REGISTRY_PACKET_CODEC, Entry::name,
+                TextCodecs.REGISTRY_PACKET_CODEC, Entry::buffDescription,
+                TextCodecs.REGISTRY_PACKET_CODEC, Entry::debuffDescription,
+                Entry::new
+        );
+
+        /**
+         * Собирает полное описание карточки для экрана выбора.
+         * @return название, бафф и дебафф на отдельных строках
+         */
+        public Text fullText() {
+            return name.copy()
+                    .append("\n")
+                    .append(buffDescription)
+                    .append("\n")
+                    .append(debuffDescription);
+        }
+    }
+
+    public static final PacketCodec<RegistryByteBuf, CardCatalogPayload> CODEC = PacketCodec.tuple(
+            PacketCodecs.INTEGER, CardCatalogPayload::hash,
+            PacketCodecs.BOOL, CardCatalogPayload::full,
+            Entry.CODEC.collect(PacketCodecs.toList()), CardCatalogPayload::cards,
+            CardCatalogPayload::new
+    );
+
+    /**
+     * Создает пакет-объявление с одним хешем каталога.
+     * @param hash хеш каталога
+     * @return пакет без карточек
+     */
+    public static CardCatalogPayload announce(int hash) {
+        return new CardCatalogPayload(hash, false, List.of());
+    }
+
+    /**
+     * Регистрирует пакет в системе.
+     */
+    public static void register() {
+        EventMod.LOGGER.info("{}Регистрация пакета каталога карточек", LOG_PREFIX);
+        PayloadBroadcaster.registerS2C(ID, CODEC);
+        EventMod.LOGGER.debug("{}Пакет зарегистрирован с ID: {}", LOG_PREFIX, ID.id());
+    }
+
+    @Override
+    public Id<CardCatalogPayload> getId() {
+        return ID;
+    }
+}
@@ -152,6 +152,9 @@ public class CardSelectionHandler {
             case "leather_armor_only":
                 displayName = "🧥 Только кожа";
                 break;
+            case "weapon_restriction":
+                displayName = "⛏️ Только кирки";
+                break;
             case "increased_speed":
                 displayName = "⚡ Скорость";
                 break;
@@ -1,6 +1,5 @@
 package ru.rebey.eventmod.network;
 
-import com.google.gson.Gson;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
 import net.minecraft.server.network.ServerPlayerEntity;
 import ru.rebey.eventmod.EventMod;
@@ -10,7 +9,6 @@ import ru.rebey.eventmod.data.PlayerDataManager;
 import ru.rebey.eventmod.team.PlayerTeam;
 
 import java.util.HashSet;
-import java.util.Set;
 
 /**
  * Обработчик выбора класса на сервере.
@@ -18,7 +16,6 @@ import java.util.Set;
  */
 public class ClassSelectionHandler {
     private static final String LOG_PREFIX = "[ClassSelectionHandler] ";
-    private static final Gson GSON = new Gson();
 
     /**
      * Регистрирует обработчик выбора класса.
@@ -63,16 +60,15 @@ public class ClassSelectionHandler {
 
                 EventMod.LOGGER.debug("{}Команда игрока {}: {}", LOG_PREFIX, playerName, teamName);
 
-                // Получаем активные эффекты
-                Set<String> activeEffects = PlayerDataHandler.getAllActiveEffects(player);
-                String effectsJson = GSON.toJson(activeEffects);
+                // Получаем маску активных эффектов
+                long effectMask = PlayerDataHandler.getEffectMask(player);
 
-                EventMod.LOGGER.debug("{}Активные эффекты игрока {}: {} (JSON: {})",
-                        LOG_PREFIX, playerName, activeEffects.size(), effectsJson);
+                EventMod.LOGGER.debug("{}Активные эффекты игрока {}: {}",
+                        LOG_PREFIX, playerName, Long.bitCount(effectMask));
 
                 // Отправляем данные для HUD класса (над хотбаром)
                 SyncPlayerEventPlayerDataPayload payloadData = new SyncPlayerEventPlayerDataPayload(
-                        pc.name(), teamName, effectsJson
+                        pc.name(), teamName, effectMask
                 );
 
                 ServerPlayNetworking.send(player, payloadData);
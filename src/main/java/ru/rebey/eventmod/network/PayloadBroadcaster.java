@@ -0,0 +1,185 @@
+package ru.rebey.eventmod.network;
+
+import io.netty.buffer.Unpooled;
+import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import ru.rebey.eventmod.EventMod;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Рассылка S2C пакетов с однократным кодированием.
+ * Пакет сериализуется в байты один раз на рассылку, и эти байты уходят всем получателям,
+ * поэтому стоимость кодирования зависит от числа разных пакетов, а не от числа игроков.
+ * Пакеты, рассылаемые через этот класс, должны быть зарегистрированы через registerS2C.
+ * Методы нужно вызывать только из потока сервера.
+ */
+public final class PayloadBroadcaster {
+    private static final String LOG_PREFIX = "[PayloadBroadcaster] ";
+
+    // Исходные кодеки зарегистрированных пакетов
+    private static final Map<CustomPayload.Id<?>, PacketCodec<RegistryByteBuf, ?>> CODECS = new HashMap<>();
+
+    // Статистика
+    private static long encodedPayloads;
+    private static long encodedBytes;
+    private static long sentPackets;
+    private static long savedBytes;
+
+    private PayloadBroadcaster() {
+    }
+
+    /**
+     * Уже закодированный пакет.
+     * Отправляется под идентификатором исходного пакета; кодек просто копирует байты.
+     */
+    private record EncodedPayload(Id<? extends CustomPayload> id, byte[] bytes) implements CustomPayload {
+        @Override
+        public Id<? extends CustomPayload> getId() {
+            return id;
+        }
+    }
+
+    /**
+     * Регистрирует S2C пакет так, чтобы его можно было рассылать в закодированном виде.
+     * Клиент получает обычный пакет: формат данных не меняется.
+     * @param id идентификатор пакета
+     * @param codec кодек пакета
+     */
+    public static <T extends CustomPayload> void registerS2C(CustomPayload.Id<T> id, PacketCodec<RegistryByteBuf, T> codec) {
+        PayloadTypeRegistry.playS2C().register(id, wrap(codec));
+        CODECS.put(id, codec);
+        EventMod.LOGGER.debug("{}Пакет {} доступен для рассылки", LOG_PREFIX, id.id());
+    }
+
+    private static <T extends CustomPayload> PacketCodec<RegistryByteBuf, T> wrap(PacketCodec<RegistryByteBuf, T> codec) {
+        return new PacketCodec<>() {
+            @Override
+            public T decode(RegistryByteBuf buf) {
+                return codec.decode(buf);
+            }
+
+            @Override
+            public void encode(RegistryByteBuf buf, T value) {
+                if (value instanceof EncodedPayload encoded) {
+                    buf.writeBytes(encoded.bytes());
+                } else {
+                    codec.encode(buf, value);
+                }
+            }
+        };
+    }
+
+    /**
+     * Отправляет один пакет списку игроков.
+     * @param server экземпляр сервера Minecraft
+     * @param players получатели
+     * @param payload пакет
+     */
+    public static void broadcast(MinecraftServer server, Iterable<ServerPlayerEntity> players, CustomPayload payload) {
+        Batch batch = batch(server);
+        for (ServerPlayerEntity player : players) {
+            batch.send(player, payload);
+        }
+    }
+
+    /**
+     * Начинает рассылку, в которой одинаковые пакеты кодируются один раз.
+     * @param server экземпляр сервера Minecraft
+     * @return рассылка
+     */
+    public static Batch batch(MinecraftServer server) {
+        return new Batch(server);
+    }
+
+    /**
+     * Рассылка с кешем закодированных пакетов.
+     * Один и тот же объект пакета кодируется один раз за время жизни рассылки
+     * (сравнение по ссылке, чтобы не считать hashCode больших пакетов на каждую отправку).
+     */
+    public static final class Batch {
+        private final MinecraftServer server;
+        private final Map<CustomPayload, EncodedPayload> encoded = new IdentityHashMap<>();
+
+        private Batch(MinecraftServer server) {
+            this.server = server;
+        }
+
+        /**
+         * Отправляет пакет игроку.
+         * @param player получатель
+         * @param payload пакет
+         */
+        public void send(ServerPlayerEntity player, CustomPayload payload) {
+            // Локальное соединение хоста одиночной игры не сериализует пакеты:
+            // клиент должен получить исходный объект
+            if (server.isHost(player.getGameProfile())) {
+                ServerPlayNetworking.send(player, payload);
+                return;
+            }
+
+            EncodedPayload bytes = encoded.get(payload);
+            if (bytes == null) {
+                bytes = encode(server, payload);
+                if (bytes == null) {
+                    ServerPlayNetworking.send(player, payload);
+                    return;
+                }
+                encoded.put(payload, bytes);
+            } else {
+                savedBytes += bytes.bytes().length;
+            }
+
+            ServerPlayNetworking.send(player, bytes);
+            sentPackets++;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static EncodedPayload encode(MinecraftServer server, CustomPayload payload) {
+        PacketCodec<RegistryByteBuf, CustomPayload> codec =
+                (PacketCodec<RegistryByteBuf, CustomPayload>) CODECS.get(payload.getId());
+        if (codec == null) {
+            EventMod.LOGGER.debug("{}Пакет {} не зарегистрирован для рассылки, отправка без кеша",
+                    LOG_PREFIX, payload.getId().id());
+            return null;
+        }
+
+        RegistryByteBuf buf = new RegistryByteBuf(Unpooled.buffer(), server.getRegistryManager());
+        try {
+            codec.encode(buf, payload);
+            byte[] bytes = new byte[buf.readableBytes()];
+            buf.readBytes(bytes);
+
+            encodedPayloads++;
+            encodedBytes += bytes.length;
+            return new EncodedPayload(payload.getId(), bytes);
+        } finally {
+            buf.release();
+        }
+    }
+
+    /**
+     * Получает количество байт, которые не пришлось кодировать повторно.
+     * @return сэкономленные байты
+     */
+    public static long getSavedBytes() {
+        return savedBytes;
+    }
+
+    /**
+     * Получает статистику рассылки.
+     * @return строка со статистикой
+     */
+    public static String getStats() {
+        return String.format("PayloadBroadcaster Stats: Encoded=%d (%d bytes), Sent=%d, SavedBytes=%d",
+                encodedPayloads, encodedBytes, sentPackets, savedBytes);
+    }
+}
@@ -0,0 +1,134 @@
+package ru.rebey.eventmod.network;
+
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.util.Identifier;
+import ru.rebey.eventmod.EventMod;
+import ru.rebey.eventmod.data.PlayerClass;
+import ru.rebey.eventmod.team.PlayerTeam;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Пакет с изменениями списка игроков.
+ * Содержит только записи о добавленных, удаленных и изменившихся игроках
+ * и переводит список клиента из версии (version - 1) в версию version.
+ * Игроки адресуются индексом сессии: имя передается только в ADD,
+ * CHANGE несет класс и команду, REMOVE — один индекс.
+ * @param version версия списка после применения изменений
+ * @param changes изменения списка
+ */
+public record PlayerListDeltaPayload(int version, List<Change> changes) implements CustomPayload {
+    private static final String LOG_PREFIX = "[PlayerListDeltaPayload] ";
+
+    public static final Id<PlayerListDeltaPayload> ID = new Id<>(Identifier.of(EventMod.MOD_ID, "player_list_delta"));
+
+    /**
+     * Тип изменения списка игроков.
+     */
+    public enum Operation {
+        ADD,
+        REMOVE,
+        CHANGE;
+
+        private static final Operation[] VALUES = values();
+
+        /**
+         * Получает операцию по порядковому номеру.
+         * @param ordinal порядковый номер
+         * @return операция
+         */
+        public static Operation byOrdinal(int ordinal) {
+            if (ordinal < 0 || ordinal >= VALUES.length) {
+                throw new IllegalArgumentException("Неизвестная операция списка игроков: " + ordinal);
+            }
+            return VALUES[ordinal];
+        }
+    }
+
+    /**
+     * Одно изменение списка игроков.
+     * Для CHANGE имя не передается (null), для REMOVE значим только индекс сессии.
+     * @param operation тип изменения
+     * @param info данные игрока
+     */
+    public record Change(Operation operation, SyncAllPlayersPayload.PlayerInfo info) {
+        /**
+         * Создает запись об удалении игрока.
+         * @param sessionIndex индекс сессии игрока
+         * @return запись об удалении
+         */
+        public static Change remove(int sessionIndex) {
+            return new Change(Operation.REMOVE,
+                    new SyncAllPlayersPayload.PlayerInfo(sessionIndex, null, null, PlayerTeam.NONE));
+        }
+    }
+
+    /**
+     * Кодек для сериализации/десериализации пакета.
+     */
+    public static final PacketCodec<RegistryByteBuf, PlayerListDeltaPayload> CODEC = new PacketCodec<>() {
+        @Override
+        public PlayerListDeltaPayload decode(RegistryByteBuf buf) {
+            int version = buf.readVarInt();
+            int size = buf.readVarInt();
+
+            List<Change> changes = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                Operation operation = Operation.byOrdinal(buf.readByte());
+                switch (operation) {
+                    case ADD -> changes.add(new Change(operation, SyncAllPlayersPayload.PlayerInfo.CODEC.decode(buf)));
+                    case CHANGE -> {
+                        int sessionIndex = buf.readVarInt();
+                        PlayerClass playerClass = SyncAllPlayersPayload.PlayerInfo.readClass(buf);
+                        PlayerTeam team = SyncAllPlayersPayload.PlayerInfo.readTeam(buf);
+                        changes.add(new Change(operation,
+                                new SyncAllPlayersPayload.PlayerInfo(sessionIndex, null, playerClass, team)));
+                    }
+                    case REMOVE -> changes.add(Change.remove(buf.readVarInt()));
+                }
+            }
+
+            EventMod.LOGGER.trace("{}Декодирован пакет: версия {}, изменений {}", LOG_PREFIX, version, size);
+            return new PlayerListDeltaPayload(version, changes);
+        }
+
+        @Override
+        public void encode(RegistryByteBuf buf, PlayerListDeltaPayload payload) {
+            buf.writeVarInt(payload.version);
+            buf.writeVarInt(payload.changes.size());
+
+            for (Change change : payload.changes) {
+                SyncAllPlayersPayload.PlayerInfo info = change.info();
+                buf.writeByte(change.operation().ordinal());
+                switch (change.operation()) {
+                    case ADD -> SyncAllPlayersPayload.PlayerInfo.CODEC.encode(buf, info);
+                    case CHANGE -> {
+                        buf.writeVarInt(info.sessionIndex());
+                        info.writeData(buf);
+                    }
+                    case REMOVE -> buf.writeVarInt(info.sessionIndex());
+                }
+            }
+
+            EventMod.LOGGER.trace("{}Закодирован пакет: версия {}, изменений {}",
+                    LOG_PREFIX, payload.version, payload.changes.size());
+        }
+    };
+
+    /**
+     * Регистрирует пакет в системе.
+     */
+    public static void register() {
+        EventMod.LOGGER.info("{}Регистрация пакета изменений списка игроков", LOG_PREFIX);
+        PayloadBroadcaster.registerS2C(ID, CODEC);
+        EventMod.LOGGER.debug("{}Пакет зарегистрирован с ID: {}", LOG_PREFIX, ID.id());
+    }
+
+    @Override
+    public Id<PlayerListDeltaPayload> getId() {
+        return ID;
+    }
+}
@@ -0,0 +1,44 @@
+package ru.rebey.eventmod.network;
+
+import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.util.Identifier;
+import ru.rebey.eventmod.EventMod;
+
+/**
+ * Пакет запроса полного каталога карточек с клиента на сервер.
+ * Отправляется, когда у клиента нет каталога с объявленным сервером хешем.
+ */
+public record RequestCardCatalogPayload() implements CustomPayload {
+    private static final String LOG_PREFIX = "[RequestCardCatalogPayload] ";
+
+    public static final Id<RequestCardCatalogPayload> ID = new Id<>(Identifier.of(EventMod.MOD_ID, "request_card_catalog"));
+
+    private static final RequestCardCatalogPayload INSTANCE = new RequestCardCatalogPayload();
+
+    public static final PacketCodec<RegistryByteBuf, RequestCardCatalogPayload> CODEC = PacketCodec.unit(INSTANCE);
+
+    /**
+     * Регистрирует пакет в системе.
+     */
+    public static void register() {
+        EventMod.LOGGER.info("{}Регистрация пакета запроса каталога карточек", LOG_PREFIX);
+        PayloadTypeRegistry.playC2S().register(ID, CODEC);
+        EventMod.LOGGER.debug("{}Пакет зарегистрирован с ID: {}", LOG_PREFIX, ID.id());
+    }
+
+    @Override
+    public Id<RequestCardCatalogPayload> getId() {
+        return ID;
+    }
+
+    /**
+     * Получает экземпляр пакета.
+     * @return единственный экземпляр пакета
+     */
+    public static RequestCardCatalogPayload getInstance() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,44 @@
+package ru.rebey.eventmod.network;
+
+import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.util.Identifier;
+import ru.rebey.eventmod.EventMod;
+
+/**
+ * Пакет запроса полного списка игроков с клиента на сервер.
+ * Отправляется, когда клиент пропустил версию изменений и его список нужно пересобрать.
+ */
+public record RequestPlayerListPayload() implements CustomPayload {
+    private static final String LOG_PREFIX = "[RequestPlayerListPayload] ";
+
+    public static final Id<RequestPlayerListPayload> ID = new Id<>(Identifier.of(EventMod.MOD_ID, "request_player_list"));
+
+    private static final RequestPlayerListPayload INSTANCE = new RequestPlayerListPayload();
+
+    public static final PacketCodec<RegistryByteBuf, RequestPlayerListPayload> CODEC = PacketCodec.unit(INSTANCE);
+
+    /**
+     * Регистрирует пакет в системе.
+     */
+    public static void register() {
+        EventMod.LOGGER.info("{}Регистрация пакета запроса списка игроков", LOG_PREFIX);
+        PayloadTypeRegistry.playC2S().register(ID, CODEC);
+        EventMod.LOGGER.debug("{}Пакет зарегистрирован с ID: {}", LOG_PREFIX, ID.id());
+    }
+
+    @Override
+    public Id<RequestPlayerListPayload> getId() {
+        return ID;
+    }
+
+    /**
+     * Получает экземпляр пакета.
+     * @return единственный экземпляр пакета
+     */
+    public static RequestPlayerListPayload getInstance() {
+        return INSTANCE;
+    }
+}
@@ -1,20 +1,25 @@
 package ru.rebey.eventmod.network;
 
-import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
 import net.minecraft.network.RegistryByteBuf;
 import net.minecraft.network.codec.PacketCodec;
 import net.minecraft.network.packet.CustomPayload;
 import net.minecraft.util.Identifier;
 import ru.rebey.eventmod.EventMod;
+import ru.rebey.eventmod.data.PlayerClass;
+import ru.rebey.eventmod.team.PlayerTeam;
 
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Пакет для синхронизации списка всех игроков с клиентом.
- * Содержит информацию обо всех игроках на сервере.
+ * Содержит полный снимок списка игроков на сервере и его версию.
+ * Отправляется при подключении и по запросу клиента, дальнейшие изменения
+ * приходят пакетами PlayerListDeltaPayload.
+ * @param version версия списка, которой соответствует снимок
+ * @param players все игроки на сервере
  */
-public record SyncAllPlayersPayload(List<PlayerInfo> players) implements CustomPayload {
+public record SyncAllPlayersPayload(int version, List<PlayerInfo> players) implements CustomPayload {
     private static final String LOG_PREFIX = "[SyncAllPlayersPayload] ";
 
     public static final Id<SyncAllPlayersPayload> ID = new Id<>(Identifier.of(EventMod.MOD_ID, "sync_all_players"));
@@ -26,36 +31,35 @@ public record SyncAllPlayersPayload(List<PlayerInfo> players) implements CustomP
         @Override
         public SyncAllPlayersPayload decode(RegistryByteBuf buf) {
             try {
+                int version = buf.readVarInt();
                 int size = buf.readVarInt();
-                EventMod.LOGGER.trace("{}Декодирование пакета, количество игроков: {}", LOG_PREFIX, size);
 
                 List<PlayerInfo> players = new ArrayList<>(size);
                 for (int i = 0; i < size; i++) {
-                    PlayerInfo info = PlayerInfo.CODEC.decode(buf);
-                    players.add(info);
-                    EventMod.LOGGER.trace("{}  Декодирован игрок {}: {}", LOG_PREFIX, i, info);
+                    players.add(PlayerInfo.CODEC.decode(buf));
                 }
 
-                return new SyncAllPlayersPayload(players);
+                EventMod.LOGGER.trace("{}Декодирован пакет: версия {}, игроков {}", LOG_PREFIX, version, size);
+                return new SyncAllPlayersPayload(version, players);
 
             } catch (Exception e) {
                 EventMod.LOGGER.error("{}Ошибка при декодировании пакета: {}", LOG_PREFIX, e.getMessage(), e);
-                return new SyncAllPlayersPayload(new ArrayList<>());
+                return new SyncAllPlayersPayload(-1, new ArrayList<>());
             }
         }
 
         @Override
         public void encode(RegistryByteBuf buf, SyncAllPlayersPayload payload) {
             try {
-                EventMod.LOGGER.trace("{}Кодирование пакета, количество игроков: {}",
-                        LOG_PREFIX, payload.players.size());
-
+                buf.writeVarInt(payload.version);
                 buf.writeVarInt(payload.players.size());
                 for (PlayerInfo info : payload.players) {
                     PlayerInfo.CODEC.encode(buf, info);
-                    EventMod.LOGGER.trace("{}  Закодирован игрок: {}", LOG_PREFIX, info);
                 }
 
+                EventMod.LOGGER.trace("{}Закодирован пакет: версия {}, игроков {}",
+                        LOG_PREFIX, payload.version, payload.players.size());
+
             } catch (Exception e) {
                 EventMod.LOGGER.error("{}Ошибка при кодировании пакета: {}", LOG_PREFIX, e.getMessage(), e);
             }
@@ -64,53 +68,95 @@ public record SyncAllPlayersPayload(List<PlayerInfo> players) implements CustomP
 
     /**
      * Информация об игроке для синхронизации.
+     * На проводе игрок идентифицируется индексом сессии, класс и команда передаются
+     * одним байтом каждый, а имя — только при первом появлении игрока в списке.
+     * @param sessionIndex индекс сессии игрока на сервере
      * @param name имя игрока
-     * @param className название класса
-     * @param teamName название команды
+     * @param playerClass класс игрока или null если не выбран
+     * @param team команда игрока
      */
-    public record PlayerInfo(String name, String className, String teamName) {
+    public record PlayerInfo(int sessionIndex, String name, PlayerClass playerClass, PlayerTeam team) {
+        private static final PlayerClass[] CLASSES = PlayerClass.values();
+        private static final PlayerTeam[] TEAMS = PlayerTeam.values();
+
+        // Байт класса для игрока без класса
+        private static final byte NO_CLASS = -1;
+
         /**
-         * Кодек для сериализации/десериализации информации об игроке.
+         * Кодек полной записи об игроке: индекс, имя, класс и команда.
          */
         public static final PacketCodec<RegistryByteBuf, PlayerInfo> CODEC = new PacketCodec<>() {
             @Override
             public PlayerInfo decode(RegistryByteBuf buf) {
-                try {
-                    String name = buf.readString();
-                    String className = buf.readString();
-                    String teamName = buf.readString();
-
-                    EventMod.LOGGER.trace("{}Декодирование PlayerInfo: name={}, class={}, team={}",
-                            LOG_PREFIX, name, className, teamName);
-
-                    return new PlayerInfo(name, className, teamName);
-
-                } catch (Exception e) {
-                    EventMod.LOGGER.error("{}Ошибка при декодировании PlayerInfo: {}", LOG_PREFIX, e.getMessage(), e);
-                    return new PlayerInfo("", "", "");
-                }
+                int sessionIndex = buf.readVarInt();
+                String name = buf.readString();
+                return new PlayerInfo(sessionIndex, name, readClass(buf), readTeam(buf));
             }
 
             @Override
             public void encode(RegistryByteBuf buf, PlayerInfo info) {
-                try {
-                    EventMod.LOGGER.trace("{}Кодирование PlayerInfo: name={}, class={}, team={}",
-                            LOG_PREFIX, info.name, info.className, info.teamName);
+                buf.writeVarInt(info.sessionIndex);
+                buf.writeString(info.name);
+                info.writeData(buf);
+            }
+        };
 
-                    buf.writeString(info.name);
-                    buf.writeString(info.className);
-                    buf.writeString(info.teamName);
+        /**
+         * Записывает класс и команду игрока (по байту на каждое поле).
+         * @param buf буфер
+         */
+        public void writeData(RegistryByteBuf buf) {
+            buf.writeByte(playerClass != null ? playerClass.ordinal() : NO_CLASS);
+            buf.writeByte(team.ordinal());
+        }
 
-                } catch (Exception e) {
-                    EventMod.LOGGER.error("{}Ошибка при кодировании PlayerInfo: {}", LOG_PREFIX, e.getMessage(), e);
-                }
+        /**
+         * Читает класс игрока.
+         * @param buf буфер
+         * @return класс или null если не выбран
+         */
+        public static PlayerClass readClass(RegistryByteBuf buf) {
+            byte ordinal = buf.readByte();
+            if (ordinal == NO_CLASS) {
+                return null;
             }
-        };
+            if (ordinal < 0 || ordinal >= CLASSES.length) {
+                throw new IllegalArgumentException("Неизвестный класс игрока: " + ordinal);
+            }
+            return CLASSES[ordinal];
+        }
+
+        /**
+         * Читает команду игрока.
+         * @param buf буфер
+         * @return команда
+         */
+        public static PlayerTeam readTeam(RegistryByteBuf buf) {
+            byte ordinal = buf.readByte();
+            if (ordinal < 0 || ordinal >= TEAMS.length) {
+                throw new IllegalArgumentException("Неизвестная команда игрока: " + ordinal);
+            }
+            return TEAMS[ordinal];
+        }
+
+        /**
+         * Создает копию записи с другими классом и командой.
+         * Возвращает эту же запись, если данные не изменились.
+         * @param newClass новый класс
+         * @param newTeam новая команда
+         * @return запись с новыми данными
+         */
+        public PlayerInfo withData(PlayerClass newClass, PlayerTeam newTeam) {
+            if (playerClass == newClass && team == newTeam) {
+                return this;
+            }
+            return new PlayerInfo(sessionIndex, name, newClass, newTeam);
+        }
 
         @Override
         public String toString() {
-            return String.format("PlayerInfo{name='%s', className='%s', teamName='%s'}",
-                    name, className, teamName);
+            return String.format("PlayerInfo{index=%d, name='%s', class=%s, team=%s}",
+                    sessionIndex, name, playerClass != null ? playerClass.name() : "", team.name());
         }
 
         /**
@@ -118,7 +164,7 @@ public record SyncAllPlayersPayload(List<PlayerInfo> players) implements CustomP
          * @return true если класс установлен
          */
         public boolean hasClass() {
-            return className != null && !className.isEmpty();
+            return playerClass != null;
         }
 
         /**
@@ -126,7 +172,7 @@ public record SyncAllPlayersPayload(List<PlayerInfo> players) implements CustomP
          * @return true если команда установлена
          */
         public boolean hasTeam() {
-            return teamName != null && !teamName.isEmpty() && !"NONE".equals(teamName);
+            return team != PlayerTeam.NONE;
         }
 
         /**
@@ -134,18 +180,7 @@ public record SyncAllPlayersPayload(List<PlayerInfo> players) implements CustomP
          * @return читаемое имя класса или пустая строка
          */
         public String getClassDisplayName() {
-            if (className == null || className.isEmpty()) {
-                return "";
-            }
-
-            switch (className) {
-                case "tank": return "🛡️ Танк";
-                case "assassin": return "🗡️ Ассасин";
-                case "engineer": return "⚙️ Инженер";
-                case "mage": return "🔮 Маг";
-                case "scout": return "👁️ Разведчик";
-                default: return className;
-            }
+            return playerClass != null ? playerClass.getDisplayName() : "";
         }
     }
 
@@ -154,7 +189,7 @@ public record SyncAllPlayersPayload(List<PlayerInfo> players) implements CustomP
      */
     public static void register() {
         EventMod.LOGGER.info("{}Регистрация пакета синхронизации списка игроков", LOG_PREFIX);
-        PayloadTypeRegistry.playS2C().register(ID, CODEC);
+        PayloadBroadcaster.registerS2C(ID, CODEC);
         EventMod.LOGGER.debug("{}Пакет зарегистрирован с ID: {}", LOG_PREFIX, ID.id());
     }
 
@@ -205,17 +240,19 @@ public record SyncAllPlayersPayload(List<PlayerInfo> players) implements CustomP
      * @return строку со статистикой
      */
     public String getClassStatistics() {
-        java.util.Map<String, Integer> classCounts = new java.util.HashMap<>();
+        int[] classCounts = new int[PlayerClass.values().length];
 
         for (PlayerInfo info : players) {
             if (info.hasClass()) {
-                classCounts.put(info.className, classCounts.getOrDefault(info.className, 0) + 1);
+                classCounts[info.playerClass.ordinal()]++;
             }
         }
 
         StringBuilder stats = new StringBuilder("Class Statistics: ");
-        for (java.util.Map.Entry<String, Integer> entry : classCounts.entrySet()) {
-            stats.append(String.format("%s=%d ", entry.getKey(), entry.getValue()));
+        for (PlayerClass pc : PlayerClass.values()) {
+            if (classCounts[pc.ordinal()] > 0) {
+                stats.append(String.format("%s=%d ", pc.getId(), classCounts[pc.ordinal()]));
+            }
         }
 
         EventMod.LOGGER.trace("{}Статистика классов: {}", LOG_PREFIX, stats.toString());
@@ -227,19 +264,20 @@ public record SyncAllPlayersPayload(List<PlayerInfo> players) implements CustomP
      * @return строку со статистикой
      */
     public String getTeamStatistics() {
-        java.util.Map<String, Integer> teamCounts = new java.util.HashMap<>();
+        int[] teamCounts = new int[PlayerTeam.values().length];
 
         for (PlayerInfo info : players) {
-            String team = info.hasTeam() ? info.teamName : "NONE";
-            teamCounts.put(team, teamCounts.getOrDefault(team, 0) + 1);
+            teamCounts[info.team.ordinal()]++;
         }
 
         StringBuilder stats = new StringBuilder("Team Statistics: ");
-        for (java.util.Map.Entry<String, Integer> entry : teamCounts.entrySet()) {
-            stats.append(String.format("%s=%d ", entry.getKey(), entry.getValue()));
+        for (PlayerTeam team : PlayerTeam.values()) {
+            if (teamCounts[team.ordinal()] > 0) {
+                stats.append(String.format("%s=%d ", team.name(), teamCounts[team.ordinal()]));
+            }
         }
 
         EventMod.LOGGER.trace("{}Статистика команд: {}", LOG_PREFIX, stats.toString());
         return stats.toString().trim();
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,5 @@
 package ru.rebey.eventmod.network;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
 import net.minecraft.network.RegistryByteBuf;
 import net.minecraft.network.codec.PacketCodec;
@@ -9,30 +7,33 @@ import net.minecraft.network.codec.PacketCodecs;
 import net.minecraft.network.packet.CustomPayload;
 import net.minecraft.util.Identifier;
 import ru.rebey.eventmod.EventMod;
+import ru.rebey.eventmod.effect.EffectType;
 
-import java.lang.reflect.Type;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.Set;
 
 /**
  * Пакет для синхронизации данных игрока с клиентом.
  * Содержит информацию о классе, команде и эффектах игрока.
+ * Эффекты передаются маской (varint) и раскладываются в идентификаторы
+ * только при обращении к getEffects.
+ * @param className название класса
+ * @param teamColor цвет команды
+ * @param effectMask маска активных эффектов (биты EffectType)
  */
-public record SyncPlayerEventPlayerDataPayload(String className, String teamColor, String effectsJson) implements CustomPayload {
+public record SyncPlayerEventPlayerDataPayload(String className, String teamColor,
+                                               long effectMask) implements CustomPayload {
     private static final String LOG_PREFIX = "[SyncPlayerEventPlayerDataPayload] ";
 
     public static final Id<SyncPlayerEventPlayerDataPayload> ID = new Id<>(Identifier.of(EventMod.MOD_ID, "sync_player_data"));
 
-    private static final Gson GSON = new Gson();
-    private static final TypeToken<Set<String>> SET_TYPE_TOKEN = new TypeToken<Set<String>>() {};
-
     /**
      * Кодек для сериализации/десериализации пакета.
      */
     public static final PacketCodec<RegistryByteBuf, SyncPlayerEventPlayerDataPayload> CODEC = PacketCodec.tuple(
             PacketCodecs.STRING, SyncPlayerEventPlayerDataPayload::className,
             PacketCodecs.STRING, SyncPlayerEventPlayerDataPayload::teamColor,
-            PacketCodecs.STRING, SyncPlayerEventPlayerDataPayload::effectsJson,
+            PacketCodecs.VAR_LONG, SyncPlayerEventPlayerDataPayload::effectMask,
             SyncPlayerEventPlayerDataPayload::new
     );
 
@@ -46,42 +47,11 @@ public record SyncPlayerEventPlayerDataPayload(String className, String teamColo
     }
 
     /**
-     * Получает набор эффектов из JSON строки.
-     * @return множество ID эффектов
+     * Получает набор эффектов, разложенный из маски.
+     * @return неизменяемое множество ID эффектов
      */
     public Set<String> getEffects() {
-        try {
-            if (effectsJson == null || effectsJson.isEmpty()) {
-                EventMod.LOGGER.trace("{}JSON эффектов пуст, возвращаем пустой набор", LOG_PREFIX);
-                return new HashSet<>();
-            }
-
-            Set<String> effects = GSON.fromJson(effectsJson, SET_TYPE_TOKEN.getType());
-            EventMod.LOGGER.trace("{}Декодировано {} эффектов из JSON", LOG_PREFIX, effects.size());
-            return effects;
-
-        } catch (Exception e) {
-            EventMod.LOGGER.error("{}Ошибка при парсинге JSON эффектов: {}, JSON: {}",
-                    LOG_PREFIX, e.getMessage(), effectsJson, e);
-            return new HashSet<>();
-        }
-    }
-
-    /**
-     * Создает JSON строку из набора эффектов.
-     * @param effects множество ID эффектов
-     * @return JSON строка
-     */
-    public static String createEffectsJson(Set<String> effects) {
-        try {
-            String json = GSON.toJson(effects);
-            EventMod.LOGGER.trace("{}Создан JSON для {} эффектов", LOG_PREFIX, effects.size());
-            return json;
-
-        } catch (Exception e) {
-            EventMod.LOGGER.error("{}Ошибка при создании JSON эффектов: {}", LOG_PREFIX, e.getMessage(), e);
-            return "[]";
-        }
+        return Collections.unmodifiableSet(EffectType.toIds(effectMask));
     }
 
     @Override
@@ -132,9 +102,7 @@ public record SyncPlayerEventPlayerDataPayload(String className, String teamColo
      * @return количество эффектов
      */
     public int getEffectCount() {
-        int count = getEffects().size();
-        EventMod.LOGGER.trace("{}Количество эффектов: {}", LOG_PREFIX, count);
-        return count;
+        return Long.bitCount(effectMask);
     }
 
     /**
@@ -142,11 +110,11 @@ public record SyncPlayerEventPlayerDataPayload(String className, String teamColo
      * @return true если пакет валиден
      */
     public boolean isValid() {
-        boolean valid = className != null && teamColor != null && effectsJson != null;
+        boolean valid = className != null && teamColor != null;
 
         if (!valid) {
-            EventMod.LOGGER.warn("{}Пакет невалиден: className={}, teamColor={}, effectsJson={}",
-                    LOG_PREFIX, className, teamColor, effectsJson);
+            EventMod.LOGGER.warn("{}Пакет невалиден: className={}, teamColor={}",
+                    LOG_PREFIX, className, teamColor);
         } else {
             EventMod.LOGGER.trace("{}Пакет валиден", LOG_PREFIX);
         }
@@ -167,8 +135,7 @@ public record SyncPlayerEventPlayerDataPayload(String className, String teamColo
         EventMod.LOGGER.debug("{}  Команда: {}", LOG_PREFIX, teamColor);
         EventMod.LOGGER.debug("{}  Эффектов: {}", LOG_PREFIX, effects.size());
 
-        String effectsJson = createEffectsJson(effects);
-        return new SyncPlayerEventPlayerDataPayload(className, teamColor, effectsJson);
+        return new SyncPlayerEventPlayerDataPayload(className, teamColor, EffectType.maskOf(effects));
     }
 
     /**
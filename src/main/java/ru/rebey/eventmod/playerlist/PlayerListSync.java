@@ -1,39 +1,220 @@
 // src/main/java/ru/rebey/eventmod/playerlist/PlayerListSync.java
 package ru.rebey.eventmod.playerlist;
 
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
-import ru.rebey.eventmod.data.PlayerClass;
+import ru.rebey.eventmod.EventMod;
 import ru.rebey.eventmod.data.PlayerDataHandler;
+import ru.rebey.eventmod.data.PlayerLifecycleRegistry;
+import ru.rebey.eventmod.data.PlayerSessionRegistry;
+import ru.rebey.eventmod.network.PayloadBroadcaster;
+import ru.rebey.eventmod.network.PlayerListDeltaPayload;
+import ru.rebey.eventmod.network.RequestPlayerListPayload;
 import ru.rebey.eventmod.network.SyncAllPlayersPayload;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
 
+/**
+ * Синхронизация списка игроков с клиентами.
+ * Подключившийся игрок получает полный снимок списка, после чего всем клиентам
+ * рассылаются только изменения (добавление, удаление, смена класса или команды).
+ * Изменения за тик собираются в один пакет с новой версией списка; клиент,
+ * пропустивший версию, запрашивает снимок заново.
+ * Методы нужно вызывать только из потока сервера.
+ */
 public class PlayerListSync {
-    private static final int SYNC_INTERVAL = 20 * 2; // каждые 2 секунды
+    private static final String LOG_PREFIX = "[PlayerListSync] ";
 
-    public static void register(MinecraftServer server) {
-        ServerTickEvents.END_SERVER_TICK.register(s -> {
-            if (s.getTicks() % SYNC_INTERVAL == 0) {
-                syncPlayerList(s);
+    // Последние разосланные данные игроков (порядок добавления сохраняется)
+    private static final Map<UUID, SyncAllPlayersPayload.PlayerInfo> PUBLISHED = new LinkedHashMap<>();
+
+    // Игроки, данные которых могли измениться с последней рассылки
+    private static final Set<UUID> DIRTY = new LinkedHashSet<>();
+
+    // Игроки, которым нужно отправить полный снимок
+    private static final Set<UUID> NEEDS_SNAPSHOT = new LinkedHashSet<>();
+
+    // Текущая версия списка
+    private static int version;
+
+    /**
+     * Регистрирует обработчики синхронизации.
+     */
+    public static void register() {
+        EventMod.LOGGER.info("{}Регистрация синхронизации списка игроков", LOG_PREFIX);
+
+        ServerTickEvents.END_SERVER_TICK.register(PlayerListSync::flush);
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> clear());
+
+        // При отключении игрок удаляется из списка следующей рассылкой
+        PlayerLifecycleRegistry.register(PlayerLifecycleRegistry.Scope.SESSION, new PlayerLifecycleRegistry.PlayerStore() {
+            @Override
+            public String name() {
+                return "player_list";
+            }
+
+            @Override
+            public void release(ServerPlayerEntity player) {
+                NEEDS_SNAPSHOT.remove(player.getUuid());
+                markDirty(player);
+            }
+
+            @Override
+            public void forEachTracked(Consumer<UUID> action) {
+                PUBLISHED.keySet().forEach(action);
+                NEEDS_SNAPSHOT.forEach(action);
             }
         });
+
+        ServerPlayNetworking.registerGlobalReceiver(RequestPlayerListPayload.ID, (payload, context) -> {
+            EventMod.LOGGER.debug("{}Игрок {} запросил полный список игроков",
+                    LOG_PREFIX, context.player().getName().getString());
+            NEEDS_SNAPSHOT.add(context.player().getUuid());
+        });
+    }
+
+    /**
+     * Отмечает подключившегося игрока: он попадет в список у остальных
+     * и получит полный снимок в конце тика.
+     * @param player подключившийся игрок
+     */
+    public static void onPlayerJoin(ServerPlayerEntity player) {
+        DIRTY.add(player.getUuid());
+        NEEDS_SNAPSHOT.add(player.getUuid());
+    }
+
+    /**
+     * Отмечает, что класс, команда или присутствие игрока могли измениться.
+     * @param player игрок
+     */
+    public static void markDirty(ServerPlayerEntity player) {
+        DIRTY.add(player.getUuid());
     }
 
-    public static void syncPlayerList(MinecraftServer server) {
-        List<SyncAllPlayersPayload.PlayerInfo> players = new ArrayList<>();
-        for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
-            PlayerClass pc = PlayerDataHandler.getPlayerClass(player);
-            String className = (pc != null) ? pc.getId() : "";
-            String teamName = PlayerDataHandler.getPlayerTeam(player).name();
-            players.add(new SyncAllPlayersPayload.PlayerInfo(player.getName().getString(), className, teamName));
+    /**
+     * Рассылает накопленные за тик изменения и снимки новым игрокам.
+     * @param server экземпляр сервера Minecraft
+     */
+    private static void flush(MinecraftServer server) {
+        if (DIRTY.isEmpty() && NEEDS_SNAPSHOT.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<PlayerListDeltaPayload.Change> changes = collectChanges(server);
+            PayloadBroadcaster.Batch batch = PayloadBroadcaster.batch(server);
+
+            if (!changes.isEmpty()) {
+                version++;
+                PlayerListDeltaPayload delta = new PlayerListDeltaPayload(version, changes);
+                for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
+                    // Получатели снимка увидят эти изменения в нем
+                    if (!NEEDS_SNAPSHOT.contains(player.getUuid())) {
+                        batch.send(player, delta);
+                    }
+                }
+                EventMod.LOGGER.debug("{}Разослано изменений: {} (версия {})", LOG_PREFIX, changes.size(), version);
+            }
+
+            if (!NEEDS_SNAPSHOT.isEmpty()) {
+                SyncAllPlayersPayload snapshot = new SyncAllPlayersPayload(version, new ArrayList<>(PUBLISHED.values()));
+                for (UUID uuid : NEEDS_SNAPSHOT) {
+                    ServerPlayerEntity player = server.getPlayerManager().getPlayer(uuid);
+                    if (player != null) {
+                        batch.send(player, snapshot);
+                        EventMod.LOGGER.debug("{}Игроку {} отправлен снимок списка: {} игроков (версия {})",
+                                LOG_PREFIX, player.getName().getString(), snapshot.getPlayerCount(), version);
+                    }
+                }
+                NEEDS_SNAPSHOT.clear();
+            }
+        } catch (Exception e) {
+            EventMod.LOGGER.error("{}Ошибка при синхронизации списка игроков: {}", LOG_PREFIX, e.getMessage(), e);
         }
-        SyncAllPlayersPayload payload = new SyncAllPlayersPayload(players);
-        for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
-            ServerPlayNetworking.send(player, payload);
+    }
+
+    /**
+     * Сравнивает отмеченных игроков с разосланными данными и обновляет их.
+     * @param server экземпляр сервера Minecraft
+     * @return изменения списка
+     */
+    private static List<PlayerListDeltaPayload.Change> collectChanges(MinecraftServer server) {
+        List<PlayerListDeltaPayload.Change> changes = new ArrayList<>();
+
+        for (UUID uuid : DIRTY) {
+            ServerPlayerEntity player = server.getPlayerManager().getPlayer(uuid);
+
+            if (player == null || player.isDisconnected()) {
+                SyncAllPlayersPayload.PlayerInfo removed = PUBLISHED.remove(uuid);
+                if (removed != null) {
+                    changes.add(PlayerListDeltaPayload.Change.remove(removed.sessionIndex()));
+                }
+                continue;
+            }
+
+            SyncAllPlayersPayload.PlayerInfo previous = PUBLISHED.get(uuid);
+            if (previous == null) {
+                SyncAllPlayersPayload.PlayerInfo info = createInfo(player);
+                PUBLISHED.put(uuid, info);
+                changes.add(new PlayerListDeltaPayload.Change(PlayerListDeltaPayload.Operation.ADD, info));
+                continue;
+            }
+
+            // withData возвращает ту же запись, если класс и команда не изменились
+            SyncAllPlayersPayload.PlayerInfo info = previous.withData(
+                    PlayerDataHandler.getPlayerClass(player), PlayerDataHandler.getPlayerTeam(player));
+            if (info != previous) {
+                PUBLISHED.put(uuid, info);
+                changes.add(new PlayerListDeltaPayload.Change(PlayerListDeltaPayload.Operation.CHANGE, info));
+            }
         }
+        DIRTY.clear();
+
+        return changes;
+    }
+
+    private static SyncAllPlayersPayload.PlayerInfo createInfo(ServerPlayerEntity player) {
+        return new SyncAllPlayersPayload.PlayerInfo(
+                PlayerSessionRegistry.indexOf(player),
+                player.getName().getString(),
+                PlayerDataHandler.getPlayerClass(player),
+                PlayerDataHandler.getPlayerTeam(player));
+    }
+
+    /**
+     * Сбрасывает состояние синхронизации (при остановке сервера).
+     */
+    private static void clear() {
+        PUBLISHED.clear();
+        DIRTY.clear();
+        NEEDS_SNAPSHOT.clear();
+        version = 0;
+    }
+
+    /**
+     * Получает текущую версию списка.
+     * @return версия списка
+     */
+    public static int getVersion() {
+        return version;
+    }
+
+    /**
+     * Получает статистику синхронизации.
+     * @return строка со статистикой
+     */
+    public static String getStats() {
+        return String.format("PlayerListSync Stats: Version=%d, Published=%d, Dirty=%d",
+                version, PUBLISHED.size(), DIRTY.size());
     }
-}
\ No newline at end of file
+}